@@ -62,15 +62,13 @@ public class Main {
         printAllTasks(manager);
 
         // Обновление
-        final Task task = manager.getTaskById(taskId2);
-        task.setStatus(TaskStatus.DONE);
-        manager.updateTask(task);
+        final Task task = manager.getTaskById(taskId2);  // хранимые задачи неизменяемы, меняем через копию
+        manager.updateTask(task.withStatus(TaskStatus.DONE));
         System.out.println("updateTask() для task2 с IN_PROGRESS в DONE выполнен");
         printTasks(manager);
 
         final Subtask subtask = manager.getSubtaskById(subtaskId3);
-        subtask.setStatus(TaskStatus.IN_PROGRESS);
-        manager.updateSubtask(subtask);
+        manager.updateSubtask(subtask.withStatus(TaskStatus.IN_PROGRESS));
         System.out.println("updateSubtask() для subtask3 с DONE в IN_PROGRESS выполнен");
         printSubtasks(manager);
         System.out.println("При этом статус Эпик 2 стал " + epic2);
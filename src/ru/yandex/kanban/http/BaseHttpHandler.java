@@ -4,7 +4,10 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
 import java.io.IOException;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 public class BaseHttpHandler implements HttpHandler {
 
@@ -55,6 +58,51 @@ public class BaseHttpHandler implements HttpHandler {
         exchange.close();
     }
 
+    protected Long parseIfMatch(HttpExchange exchange) {
+        // If-Match: "5" or W/"5" is the version expected by the update, no header or '*' means no check;
+        // NumberFormatException for a tag not made by toETag()
+        String value = exchange.getRequestHeaders().getFirst("If-Match");
+        if (value == null || value.isBlank() || value.trim().equals("*")) {
+            return null;
+        }
+        String tag = value.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return Long.parseLong(tag.replace("\"", ""));
+    }
+
+    protected static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    protected Map<String, String> parseQuery(HttpExchange exchange) {
+        // "a=1&b=%26" --> {a=1, b=&}: the raw query is split first and then every key and value is decoded,
+        // so encoded '&' and '=' stay inside their values
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(decode(pair.substring(0, separator)), decode(pair.substring(separator + 1)));
+            } else {
+                params.put(decode(pair), "");
+            }
+        }
+        return params;
+    }
+
+    private static String decode(String text) {
+        try {
+            return URLDecoder.decode(text, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            return text;  // malformed escape, the handler rejects the value as it is
+        }
+    }
+
     protected int parseIdFromPath(String path, String prefixToRemove) {
         return parseIdFromPath(path, prefixToRemove, "");
     }
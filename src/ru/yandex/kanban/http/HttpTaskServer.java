@@ -1,55 +1,181 @@
 package ru.yandex.kanban.http;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
+import ru.yandex.kanban.manager.BoardRegistry;
+import ru.yandex.kanban.manager.ConcurrentTaskManager;
 import ru.yandex.kanban.manager.Managers;
 import ru.yandex.kanban.manager.TaskManager;
+import ru.yandex.kanban.manager.StaleVersionException;
 import ru.yandex.kanban.manager.TaskOverlapException;
 import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.RecurringTask;
 import ru.yandex.kanban.tasks.Subtask;
 import ru.yandex.kanban.tasks.Task;
 import ru.yandex.kanban.tasks.TaskType;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static ru.yandex.kanban.tasks.TaskType.*;
 
 public class HttpTaskServer extends BaseHttpHandler {
     private static final int PORT = 8080;
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int SEARCH_LIMIT = 50;
+    private static final List<String> RESOURCES =
+            List.of("tasks", "subtasks", "epics", "history", "prioritized", "slots", "search", "stats");
 
     private final HttpServer server;
     private final Gson gson;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService clock;
+    private volatile Duration archiveAge;  // null keeps all tasks on the heap
 
     private final TaskManager taskManager;
+    private final BoardRegistry boards;
 
     public HttpTaskServer() throws IOException {
         this(Managers.getDefault());
     }
 
     public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, Managers.getDefaultBoards());
+    }
+
+    public HttpTaskServer(TaskManager taskManager, BoardRegistry boards) throws IOException {
+        // paths without a board go to the default manager, /boards/{name}/... to the board of BoardRegistry
         this.taskManager = taskManager;
+        this.boards = boards;
         gson = Managers.getGson();
         server = HttpServer.create(new InetSocketAddress(PORT), 0);
-        server.createContext("/tasks", this::handleTasks);
-        server.createContext("/subtasks", this::handleSubtasks);
-        server.createContext("/epics", this::handleEpics);
-        server.createContext("/history", this::handleHistory);
-        server.createContext("/prioritized", this::handlePrioritized);
+        for (String resource : RESOURCES) {
+            server.createContext("/" + resource, exchange ->
+                    handleResource(exchange, taskManager, resource, exchange.getRequestURI().getPath()));
+        }
+        server.createContext("/boards", this::handleBoards);
+        // requests are handled in parallel only by a thread-safe manager, otherwise by the single server thread
+        if (taskManager instanceof ConcurrentTaskManager) {
+            executor = Executors.newFixedThreadPool(THREADS);
+            server.setExecutor(executor);
+        } else {
+            executor = null;
+        }
+        // task timers of the thread-safe managers are moved by a clock thread, see TaskManager.advanceTime()
+        clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    private void handleTasks(HttpExchange exchange) throws IOException {
-        String requestMethod = exchange.getRequestMethod();
+    public void setArchiveAge(Duration archiveAge) {
+        // DONE tasks ended longer ago than that are moved to the archive files hourly, see TaskManager.archiveDone()
+        this.archiveAge = archiveAge;
+    }
+
+    private List<TaskManager> getClockedManagers() {
+        List<TaskManager> managers = new ArrayList<>();
+        if (taskManager instanceof ConcurrentTaskManager) {
+            managers.add(taskManager);
+        }
+        for (String name : boards.getBoardNames()) {
+            managers.add(boards.getBoard(name));
+        }
+        return managers;
+    }
+
+    private void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (TaskManager manager : getClockedManagers()) {
+                manager.advanceTime(now);
+            }
+        } catch (RuntimeException exception) {  // the next ticks must go on
+            System.out.println("Task clock failed at " + now + ": " + exception);
+        }
+    }
+
+    private void archive() {
+        Duration age = archiveAge;
+        if (age == null) {
+            return;
+        }
+        LocalDateTime endedBefore = LocalDateTime.now().minus(age);
+        for (TaskManager manager : getClockedManagers()) {
+            if (!manager.canArchive()) {
+                continue;  // file boards keep their tasks
+            }
+            try {
+                manager.archiveDone(endedBefore);
+            } catch (RuntimeException exception) {
+                System.out.println("Archiving failed for tasks ended before " + endedBefore + ": " + exception);
+            }
+        }
+    }
+
+    private void handleBoards(HttpExchange exchange) throws IOException {
+        // GET /boards --> board names; /boards/{name}/tasks and other resources --> the same as without a board
         String requestPath = exchange.getRequestURI().getPath();
+        if (Pattern.matches("^/boards/?$", requestPath)) {
+            if (exchange.getRequestMethod().equals("GET")) {
+                sendText(exchange, gson.toJson(boards.getBoardNames()));  // OK
+            } else {
+                super.handleDefaultGet(exchange);
+            }
+            return;
+        }
+        String[] segments = requestPath.split("/", 4);  // "", "boards", name, resource path
+        if (segments.length < 4 || !BoardRegistry.isValidName(segments[2])) {
+            System.out.println("/boards/{name}/... path expected but " + requestPath + " got");
+            sendHttpStatus(exchange, 404);  // Not Found
+            return;
+        }
+        String resource = segments[3].split("/")[0];
+        if (!RESOURCES.contains(resource)) {
+            sendHttpStatus(exchange, 404);  // Not Found
+            return;
+        }
+        handleResource(exchange, boards.getBoard(segments[2]), resource, "/" + segments[3]);
+    }
+
+    private void handleResource(HttpExchange exchange, TaskManager manager, String resource, String requestPath)
+            throws IOException {
+        switch (resource) {
+            case "tasks" -> handleTasks(exchange, manager, requestPath);
+            case "subtasks" -> handleSubtasks(exchange, manager, requestPath);
+            case "epics" -> handleEpics(exchange, manager, requestPath);
+            case "history" -> handleHistory(exchange, manager, requestPath);
+            case "prioritized" -> handlePrioritized(exchange, manager, requestPath);
+            case "slots" -> handleSlots(exchange, manager, requestPath);
+            case "stats" -> handleStats(exchange, manager, requestPath);
+            default -> handleSearch(exchange, manager, requestPath);
+        }
+    }
+
+    private void handleTasks(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
+        String requestMethod = exchange.getRequestMethod();
         switch (requestMethod) {
             case "GET":
                 if (Pattern.matches("^/tasks$", requestPath)) {
-                    handleGetTasks(exchange, TASK);
+                    handleGetTasks(exchange, manager, TASK);
                 }  else if (Pattern.matches("^/tasks/\\d+$", requestPath)) {
                     int pathId = parseIdFromPath(requestPath, "/tasks/");
-                    handleGetTaskById(exchange, TASK, pathId);
+                    handleGetTaskById(exchange, manager, TASK, pathId);
                 } else {
                     super.handleDefaultGet(exchange);
                 }
@@ -57,7 +183,7 @@ public class HttpTaskServer extends BaseHttpHandler {
             case "DELETE":
                 if (Pattern.matches("^/tasks/\\d+$", requestPath)) {
                     int pathId =  parseIdFromPath(requestPath, "/tasks/");
-                    handleDeleteTask(exchange, TASK, pathId);
+                    handleDeleteTask(exchange, manager, TASK, pathId);
                 } else {
                     super.handleDefaultDelete(exchange);
                 }
@@ -70,19 +196,34 @@ public class HttpTaskServer extends BaseHttpHandler {
                         sendHttpStatus(exchange, 400);  // Bad Request
                         return;
                     }
-                    final Task task = gson.fromJson(json, Task.class);
+                    // a task with a repeat interval is a series stored as one recurring task
+                    final JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+                    final Task task = gson.fromJson(object, object.has("repeatEvery") ? RecurringTask.class : Task.class);
                     final int id = task.getId();
                     try {
                         if (id > 0) {
-                            taskManager.updateTask(task);
+                            final Long expectedVersion = parseIfMatch(exchange);
+                            // the version stored by this very update, a later writer cannot slip in between
+                            final long version = expectedVersion == null
+                                    ? manager.updateTask(task)
+                                    : manager.updateTask(task, expectedVersion);
+                            addETag(exchange, version);
                             System.out.println("Task updated. ID = " + id);
+                        } else if (isScheduleRequested(exchange)) {
+                            System.out.println("Task scheduled. ID = " + manager.scheduleNewTask(task));
                         } else {
-                            System.out.println("Task created. ID = " + taskManager.addNewTask(task));
+                            System.out.println("Task created. ID = " + manager.addNewTask(task));
                         }
                         sendHttpStatus(exchange, 201);  // Created
                     } catch (TaskOverlapException exception) {
                         System.out.println(exception);
                         sendHttpStatus(exchange, 406);  // Not Acceptable
+                    } catch (StaleVersionException exception) {
+                        System.out.println(exception);
+                        sendHttpStatus(exchange, 412);  // Precondition Failed: changed since read
+                    } catch (IllegalArgumentException exception) {
+                        System.out.println(exception);
+                        sendHttpStatus(exchange, 400);  // Bad Request: wrong recurrence rule or If-Match
                     }
                 } else {
                     super.handleDefaultPost(exchange);
@@ -95,16 +236,15 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handleSubtasks(HttpExchange exchange) throws IOException {
+    private void handleSubtasks(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
         String requestMethod = exchange.getRequestMethod();
-        String requestPath = exchange.getRequestURI().getPath();
         switch (requestMethod) {
             case "GET":
                 if (Pattern.matches("^/subtasks$", requestPath)) {
-                    handleGetTasks(exchange, SUBTASK);
+                    handleGetTasks(exchange, manager, SUBTASK);
                 }  else if (Pattern.matches("^/subtasks/\\d+$", requestPath)) {
                     int pathId = parseIdFromPath(requestPath, "/subtasks/");
-                    handleGetTaskById(exchange, SUBTASK, pathId);
+                    handleGetTaskById(exchange, manager, SUBTASK, pathId);
                 } else {
                     super.handleDefaultGet(exchange);
                 }
@@ -112,7 +252,7 @@ public class HttpTaskServer extends BaseHttpHandler {
             case "DELETE":
                 if (Pattern.matches("^/subtasks/\\d+$", requestPath)) {
                     int pathId =  parseIdFromPath(requestPath, "/subtasks/");
-                    handleDeleteTask(exchange, SUBTASK, pathId);
+                    handleDeleteTask(exchange, manager, SUBTASK, pathId);
                 } else {
                     super.handleDefaultDelete(exchange);
                 }
@@ -129,15 +269,28 @@ public class HttpTaskServer extends BaseHttpHandler {
                     final int id = subtask.getId();
                     try {
                         if (id > 0) {
-                            taskManager.updateSubtask(subtask);
+                            final Long expectedVersion = parseIfMatch(exchange);
+                            // the version stored by this very update, a later writer cannot slip in between
+                            final long version = expectedVersion == null
+                                    ? manager.updateSubtask(subtask)
+                                    : manager.updateSubtask(subtask, expectedVersion);
+                            addETag(exchange, version);
                             System.out.println("Subtask updated. ID = " + id);
+                        } else if (isScheduleRequested(exchange)) {
+                            System.out.println("Subtask scheduled. ID = " + manager.scheduleNewSubtask(subtask));
                         } else {
-                            System.out.println("Subtask created. ID = " + taskManager.addNewSubtask(subtask));
+                            System.out.println("Subtask created. ID = " + manager.addNewSubtask(subtask));
                         }
                         sendHttpStatus(exchange, 201);  // Created
                     } catch (TaskOverlapException exception) {
                         System.out.println(exception);
                         sendHttpStatus(exchange, 406);  // Not Acceptable
+                    } catch (StaleVersionException exception) {
+                        System.out.println(exception);
+                        sendHttpStatus(exchange, 412);  // Precondition Failed: changed since read
+                    } catch (NumberFormatException exception) {
+                        System.out.println(exception);
+                        sendHttpStatus(exchange, 400);  // Bad Request: wrong If-Match
                     }
                 } else {
                     super.handleDefaultPost(exchange);
@@ -150,19 +303,18 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handleEpics(HttpExchange exchange) throws IOException {
+    private void handleEpics(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
         String requestMethod = exchange.getRequestMethod();
-        String requestPath = exchange.getRequestURI().getPath();
         switch (requestMethod) {
             case "GET":
                 if (Pattern.matches("^/epics$", requestPath)) {
-                    handleGetTasks(exchange, EPIC);
+                    handleGetTasks(exchange, manager, EPIC);
                 }  else if (Pattern.matches("^/epics/\\d+$", requestPath)) {
                     int pathId = parseIdFromPath(requestPath, "/epics/");
-                    handleGetTaskById(exchange, EPIC, pathId);
+                    handleGetTaskById(exchange, manager, EPIC, pathId);
                 } else if (Pattern.matches("^/epics/\\d+/subtasks$", requestPath)) {
                     int pathId = parseIdFromPath(requestPath, "/epics/", "/subtasks");
-                    String response = gson.toJson(taskManager.getEpicSubtasks(pathId));
+                    String response = gson.toJson(manager.getEpicSubtasks(pathId));
                     sendText(exchange, response);  // OK
                 } else {
                     super.handleDefaultGet(exchange);
@@ -171,7 +323,7 @@ public class HttpTaskServer extends BaseHttpHandler {
             case "DELETE":
                 if (Pattern.matches("^/epics/\\d+$", requestPath)) {
                     int pathId =  parseIdFromPath(requestPath, "/epics/");
-                    handleDeleteTask(exchange, EPIC, pathId);
+                    handleDeleteTask(exchange, manager, EPIC, pathId);
                 } else {
                     super.handleDefaultDelete(exchange);
                 }
@@ -185,8 +337,27 @@ public class HttpTaskServer extends BaseHttpHandler {
                         return;
                     }
                     final Epic epic = gson.fromJson(json, Epic.class);
-                    System.out.println("Epic created. ID = " + taskManager.addNewEpic(epic));
-                    sendHttpStatus(exchange, 201);   // Created
+                    final int id = epic.getId();
+                    if (id <= 0) {
+                        System.out.println("Epic created. ID = " + manager.addNewEpic(epic));
+                        sendHttpStatus(exchange, 201);   // Created
+                        return;
+                    }
+                    try {
+                        final Long expectedVersion = parseIfMatch(exchange);
+                        final long version = expectedVersion == null
+                                ? manager.updateEpic(epic)
+                                : manager.updateEpic(epic, expectedVersion);
+                        addETag(exchange, version);
+                        System.out.println("Epic updated. ID = " + id);
+                        sendHttpStatus(exchange, 201);   // Created
+                    } catch (StaleVersionException exception) {
+                        System.out.println(exception);
+                        sendHttpStatus(exchange, 412);  // Precondition Failed: changed since read
+                    } catch (NumberFormatException exception) {
+                        System.out.println(exception);
+                        sendHttpStatus(exchange, 400);  // Bad Request: wrong If-Match
+                    }
                 } else {
                     super.handleDefaultPost(exchange);
                 }
@@ -198,12 +369,11 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handleHistory(HttpExchange exchange) throws IOException {
+    private void handleHistory(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
         String requestMethod = exchange.getRequestMethod();
-        String requestPath = exchange.getRequestURI().getPath();
         if (requestMethod.equals("GET")) {
             if (Pattern.matches("^/history$", requestPath)) {
-                String response = gson.toJson(taskManager.getHistory());
+                String response = gson.toJson(manager.getHistory());
                 sendText(exchange, response);  // OK
             } else {
                 super.handleDefaultGet(exchange);
@@ -215,12 +385,11 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handlePrioritized(HttpExchange exchange) throws IOException {
+    private void handlePrioritized(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
         String requestMethod = exchange.getRequestMethod();
-        String requestPath = exchange.getRequestURI().getPath();
         if (requestMethod.equals("GET")) {
             if (Pattern.matches("^/prioritized$", requestPath)) {
-                String response = gson.toJson(taskManager.getPrioritizedTasks());
+                String response = gson.toJson(manager.getPrioritizedTasks());
                 sendText(exchange, response);  // OK
             } else {
                 super.handleDefaultGet(exchange);
@@ -232,17 +401,98 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handleGetTasks(HttpExchange exchange, TaskType taskType) throws IOException {
+    private void handleStats(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
+        String requestMethod = exchange.getRequestMethod();
+        if (requestMethod.equals("GET")) {
+            if (Pattern.matches("^/stats$", requestPath)) {
+                String response = gson.toJson(manager.getStats());
+                sendText(exchange, response);  // OK
+            } else {
+                super.handleDefaultGet(exchange);
+            }
+        } else {
+            System.out.println("/stats path expected for GET method but " + requestPath
+                    + " got for " + requestMethod + " method");
+            super.handleDefaultGet(exchange);
+        }
+    }
+
+    private void handleSlots(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
+        // GET /slots?duration=<minutes>[&from=<yyyy-MM-dd HH:mm:ss>] --> {"startTime":"..."}
+        String requestMethod = exchange.getRequestMethod();
+        if (requestMethod.equals("GET") && Pattern.matches("^/slots$", requestPath)) {
+            Map<String, String> params = parseQuery(exchange);
+            Duration duration;
+            LocalDateTime from;
+            try {
+                duration = Duration.ofMinutes(Long.parseLong(params.getOrDefault("duration", "")));
+                from = params.containsKey("from")
+                        ? LocalDateTime.parse(params.get("from"), LocalDateTimeAdapter.formatter)
+                        : LocalDateTime.now();
+            } catch (NumberFormatException | DateTimeParseException exception) {
+                System.out.println("Incorrect slot request: " + exception.getMessage());
+                sendHttpStatus(exchange, 400);  // Bad Request
+                return;
+            }
+            if (duration.isZero() || duration.isNegative()) {
+                System.out.println("Slot request expects positive duration but got " + duration);
+                sendHttpStatus(exchange, 400);  // Bad Request
+                return;
+            }
+            LocalDateTime slot = manager.findFreeSlot(duration, from);
+            if (slot == null) {
+                sendHttpStatus(exchange, 404);  // Not Found
+            } else {
+                sendText(exchange, gson.toJson(Map.of("startTime", slot)));  // OK
+            }
+        } else {
+            System.out.println("/slots path expected for GET method but " + requestPath
+                    + " got for " + requestMethod + " method");
+            super.handleDefaultGet(exchange);
+        }
+    }
+
+    private void handleSearch(HttpExchange exchange, TaskManager manager, String requestPath) throws IOException {
+        // GET /search?q=<words>[&limit=<count>] --> tasks, epics and subtasks found by title and description
+        String requestMethod = exchange.getRequestMethod();
+        if (requestMethod.equals("GET") && Pattern.matches("^/search$", requestPath)) {
+            Map<String, String> params = parseQuery(exchange);
+            String query = params.get("q");
+            int limit;
+            try {
+                limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(SEARCH_LIMIT)));
+            } catch (NumberFormatException exception) {
+                limit = -1;
+            }
+            if (query == null || limit <= 0) {
+                System.out.println("Search request expects q and positive limit parameters: " + params);
+                sendHttpStatus(exchange, 400);  // Bad Request
+                return;
+            }
+            sendText(exchange, gson.toJson(manager.search(query, limit)));  // OK
+        } else {
+            System.out.println("/search path expected for GET method but " + requestPath
+                    + " got for " + requestMethod + " method");
+            super.handleDefaultGet(exchange);
+        }
+    }
+
+    private boolean isScheduleRequested(HttpExchange exchange) {
+        // POST /tasks?schedule=true places a new task to the first free slot from its start time
+        return "true".equals(parseQuery(exchange).get("schedule"));
+    }
+
+    private void handleGetTasks(HttpExchange exchange, TaskManager manager, TaskType taskType) throws IOException {
         String response = "";
         switch (taskType) {
             case TASK:
-                response = gson.toJson(taskManager.getTasks());
+                response = gson.toJson(manager.getTasks());
                 break;
             case SUBTASK:
-                response = gson.toJson(taskManager.getSubtasks());
+                response = gson.toJson(manager.getSubtasks());
                 break;
             case EPIC:
-                response = gson.toJson(taskManager.getEpics());
+                response = gson.toJson(manager.getEpics());
                 break;
         }
         if (response.isEmpty() || response.equals("null")) {
@@ -252,16 +502,18 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handleGetTaskById(HttpExchange exchange, TaskType taskType, int taskId) throws IOException {
+    private void handleGetTaskById(HttpExchange exchange, TaskManager manager, TaskType taskType, int taskId)
+            throws IOException {
         if (taskId != -1) {
             Task task = switch (taskType) {
-                case TASK -> taskManager.getTaskById(taskId);
-                case SUBTASK -> taskManager.getSubtaskById(taskId);
-                case EPIC -> taskManager.getEpicById(taskId);
+                case TASK -> manager.getTaskById(taskId);
+                case SUBTASK -> manager.getSubtaskById(taskId);
+                case EPIC -> manager.getEpicById(taskId);
             };
             if (task == null) {
                 sendHttpStatus(exchange, 404);  // Not Found
             } else {
+                addETag(exchange, task.getVersion());  // for If-Match of the following update
                 sendText(exchange, gson.toJson(task));  // OK
             }
         } else {
@@ -271,12 +523,17 @@ public class HttpTaskServer extends BaseHttpHandler {
         }
     }
 
-    private void handleDeleteTask(HttpExchange exchange, TaskType taskType, int taskId) throws IOException {
+    private static void addETag(HttpExchange exchange, long version) {
+        exchange.getResponseHeaders().set("ETag", toETag(version));
+    }
+
+    private void handleDeleteTask(HttpExchange exchange, TaskManager manager, TaskType taskType, int taskId)
+            throws IOException {
         if (taskId != -1) {
             switch (taskType) {
-                case TASK -> taskManager.deleteTask(taskId);
-                case SUBTASK -> taskManager.deleteSubtask(taskId);
-                case EPIC -> taskManager.deleteEpic(taskId);
+                case TASK -> manager.deleteTask(taskId);
+                case SUBTASK -> manager.deleteSubtask(taskId);
+                case EPIC -> manager.deleteEpic(taskId);
             }
             System.out.println("Deleted " + taskType.name() + ". ID = " + taskId);
             sendHttpStatus(exchange, 200);  // OK
@@ -291,10 +548,17 @@ public class HttpTaskServer extends BaseHttpHandler {
         System.out.println("TaskServer started on port " + PORT);
         System.out.println("Use http://localhost:" + PORT + "/tasks and other URIs to request services");
         server.start();
+        clock.scheduleAtFixedRate(this::tick, 0, 1, TimeUnit.SECONDS);
+        clock.scheduleAtFixedRate(this::archive, 1, 60, TimeUnit.MINUTES);
     }
 
     public void stop() {
         server.stop(0);
+        clock.shutdown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+        boards.close();  // the default manager is closed by its owner
         System.out.println("TaskServer stopped on port " + PORT);
     }
 
@@ -0,0 +1,40 @@
+package ru.yandex.kanban.http;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.kanban.util.PersistentIntSet;
+
+import java.io.IOException;
+
+public class PersistentIntSetAdapter extends TypeAdapter<PersistentIntSet> {
+
+    @Override
+    public void write(JsonWriter jsonWriter, PersistentIntSet set) throws IOException {
+        if (set == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+        jsonWriter.beginArray();
+        for (int value : set.toArray()) {
+            jsonWriter.value(value);
+        }
+        jsonWriter.endArray();
+    }
+
+    @Override
+    public PersistentIntSet read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        PersistentIntSet set = PersistentIntSet.EMPTY;
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            set = set.with(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+        return set;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.kanban.http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.kanban.tasks.StringPool;
+import ru.yandex.kanban.tasks.Task;
+
+import java.io.IOException;
+
+public class PooledTextAdapterFactory implements TypeAdapterFactory {
+    // Gson fills task fields directly: read texts are passed through the setters to get pooled or packed,
+    // a packed description is written back as plain text
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!Task.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+        final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter jsonWriter, T value) throws IOException {
+                String description = value == null ? null : ((Task) value).getDescription();
+                if (!StringPool.shouldPack(description)) {
+                    delegate.write(jsonWriter, value);
+                    return;
+                }
+                JsonObject tree = delegate.toJsonTree(value).getAsJsonObject();
+                tree.addProperty("description", description);
+                elementAdapter.write(jsonWriter, tree);
+            }
+
+            @Override
+            public T read(JsonReader jsonReader) throws IOException {
+                T value = delegate.read(jsonReader);
+                if (value instanceof Task task && !task.isSealed()) {
+                    task.setTitle(task.getTitle());
+                    task.setDescription(task.getDescription());
+                }
+                return value;
+            }
+        };
+    }
+}
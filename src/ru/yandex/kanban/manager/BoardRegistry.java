@@ -0,0 +1,63 @@
+package ru.yandex.kanban.manager;
+
+import java.io.File;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+public class BoardRegistry {
+    // Independent boards of different teams. Every board has its own manager, history, ID sequence,
+    // overlap domain and lock, file boards also have their own CSV file, so requests to different boards
+    // never wait for each other.
+
+    private static final Pattern BOARD_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final ConcurrentHashMap<String, TaskManager> boards = new ConcurrentHashMap<>();
+    private final File directory;  // null for boards kept in memory only
+
+    public BoardRegistry() {
+        this(null);
+    }
+
+    public BoardRegistry(File directory) {
+        this.directory = directory;
+    }
+
+    public static boolean isValidName(String name) {
+        return name != null && BOARD_NAME.matcher(name).matches();
+    }
+
+    public TaskManager getBoard(String name) {
+        // the board is created on the first access, a file board is restored from <directory>/<name>.csv
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Board name must be 1-64 latin letters, digits, '_' or '-': " + name);
+        }
+        return boards.computeIfAbsent(name, this::createBoard);
+    }
+
+    public Set<String> getBoardNames() {
+        return new TreeSet<>(boards.keySet());
+    }
+
+    public void close() {
+        // closes every board, a board asked for later is created anew
+        for (String name : getBoardNames()) {
+            TaskManager board = boards.remove(name);
+            if (board != null) {
+                board.close();
+            }
+        }
+    }
+
+    private TaskManager createBoard(String name) {
+        HistoryManager history = new InMemoryHistoryManager();
+        if (directory == null) {
+            return new ConcurrentTaskManager(new InMemoryTaskManager(new TimeIndexOverlapValidator(), history));
+        }
+        File file = new File(directory, name + ".csv");
+        return new ConcurrentTaskManager(file.exists()
+                ? FileBackedTaskManager.loadFromFile(file, history)
+                : new FileBackedTaskManager(file, history));
+    }
+}
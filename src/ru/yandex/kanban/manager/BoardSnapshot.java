@@ -0,0 +1,33 @@
+package ru.yandex.kanban.manager;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+public final class BoardSnapshot<T> extends AbstractList<T> implements RandomAccess {
+    // Immutable list returned by the manager. It is built once per board version and then shared by all
+    // readers until the next change of the collection, so polling an unchanged board allocates nothing.
+
+    private final Object[] items;
+    private final long version;
+
+    BoardSnapshot(Collection<? extends T> items, long version) {
+        this.items = items.toArray();
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) items[index];
+    }
+
+    @Override
+    public int size() {
+        return items.length;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class BoardStats {
+    // Counters of the board at one version. The manager keeps them up to date on every change, so building
+    // the stats costs the number of epics, not of tasks, and is done once per board version.
+
+    private final Map<TaskType, Map<TaskStatus, Integer>> counts;
+    private final long plannedMinutes;               // of tasks and subtasks, epics take theirs from subtasks
+    private final Map<Integer, Integer> epicProgress;  // epic ID --> percent of DONE subtasks
+    private final long version;
+
+    BoardStats(Map<TaskType, Map<TaskStatus, Integer>> counts, long plannedMinutes,
+               Map<Integer, Integer> epicProgress, long version) {
+        // the stats are shared as a cached value, so they keep read-only copies of the caller's maps
+        Map<TaskType, Map<TaskStatus, Integer>> copy = new EnumMap<>(TaskType.class);
+        counts.forEach((type, statusCounts) -> copy.put(type, Collections.unmodifiableMap(new EnumMap<>(statusCounts))));
+        this.counts = Collections.unmodifiableMap(copy);
+        this.plannedMinutes = plannedMinutes;
+        this.epicProgress = Collections.unmodifiableMap(new LinkedHashMap<>(epicProgress));
+        this.version = version;
+    }
+
+    public int getCount(TaskType type, TaskStatus status) {
+        return counts.get(type).get(status);
+    }
+
+    public int getCount(TaskType type) {
+        int count = 0;
+        for (int statusCount : counts.get(type).values()) {
+            count += statusCount;
+        }
+        return count;
+    }
+
+    public long getPlannedMinutes() {
+        return plannedMinutes;
+    }
+
+    public Map<Integer, Integer> getEpicProgress() {
+        return epicProgress;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    static Map<TaskType, Map<TaskStatus, Integer>> newCounts() {
+        Map<TaskType, Map<TaskStatus, Integer>> counts = new EnumMap<>(TaskType.class);
+        for (TaskType type : TaskType.values()) {
+            counts.put(type, new EnumMap<>(TaskStatus.class));
+        }
+        return counts;
+    }
+}
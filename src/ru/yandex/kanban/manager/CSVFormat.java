@@ -13,6 +13,7 @@ public final class CSVFormat {
 
     public static String toString(Task task) {
         // Structure of CSV-line returned: "id,type,title,status,description,startTime,duration,epic"
+        // followed by ",repeatEvery,occurrences" for recurring tasks
         TaskType taskType = TaskType.TASK;
         if (task instanceof Epic) {
             taskType = TaskType.EPIC;
@@ -26,7 +27,11 @@ public final class CSVFormat {
                 task.getStartTime().toString(), String.valueOf(task.getDuration().toMinutes()),   // startTime, duration
                 (taskType == TaskType.SUBTASK ? String.valueOf(((Subtask)task).getEpicId()) : "") // epic
         };
-        return String.join(",", lineFields) + System.lineSeparator();
+        String line = String.join(",", lineFields);
+        if (task instanceof RecurringTask rule) {   // a series is one TASK line with the rule appended
+            line += "," + rule.getRepeatEvery().toMinutes() + "," + rule.getOccurrences();
+        }
+        return line + System.lineSeparator();
     }
 
     public static Task fromString(String value) {
@@ -41,7 +46,10 @@ public final class CSVFormat {
         Duration duration = Duration.ofMinutes(Long.parseLong(values[6]));
         switch (taskType) {
             case TaskType.TASK -> {
-                Task task = new Task(values[2], values[4]);
+                Task task = values.length > 9
+                        ? new RecurringTask(values[2], values[4], Duration.ofMinutes(Long.parseLong(values[8])),
+                                Integer.parseInt(values[9]))
+                        : new Task(values[2], values[4]);
                 task.setId(id);
                 task.setStatus(status);
                 task.setStartTime(startTime);
@@ -0,0 +1,315 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+public class ConcurrentTaskManager implements TaskManager {
+    // Thread-safe wrapper: reads share the lock, writes are serialized since every one of them may touch
+    // the time index and its no-overlap invariant. Only the board version is read with an optimistic stamp:
+    // the wrapped maps and TreeSet may throw or loop when walked while a writer changes them, so the other
+    // reads take pessimistic stamps. Stored tasks, subtasks and epics are sealed and swapped on change,
+    // so the values returned here may be used after the lock is released.
+    // History is kept by InMemoryHistoryManager, which is synchronized on its own.
+
+    private final TaskManager manager;
+    private final StampedLock lock = new StampedLock();
+
+    public ConcurrentTaskManager(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T write(Supplier<T> writer) {
+        long stamp = lock.writeLock();
+        try {
+            return writer.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void write(Runnable writer) {
+        long stamp = lock.writeLock();
+        try {
+            writer.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return read(manager::getTasks);
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        return read(manager::getEpics);
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        return read(manager::getSubtasks);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return manager.getHistory();
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int id) {
+        return read(() -> manager.getEpicSubtasks(id));
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return read(() -> manager.getTaskById(id));
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        return read(() -> manager.getEpicById(id));
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        return read(() -> manager.getSubtaskById(id));
+    }
+
+    @Override
+    public Task peekTask(int id) {
+        return read(() -> manager.peekTask(id));
+    }
+
+    @Override
+    public Epic peekEpic(int id) {
+        return read(() -> manager.peekEpic(id));
+    }
+
+    @Override
+    public Subtask peekSubtask(int id) {
+        return read(() -> manager.peekSubtask(id));
+    }
+
+    @Override
+    public int addNewTask(Task task) {
+        return write(() -> manager.addNewTask(task));
+    }
+
+    @Override
+    public int addNewEpic(Epic epic) {
+        return write(() -> manager.addNewEpic(epic));
+    }
+
+    @Override
+    public int addNewSubtask(Subtask subtask) {
+        return write(() -> manager.addNewSubtask(subtask));
+    }
+
+    @Override
+    public long updateTask(Task task) {
+        return write(() -> manager.updateTask(task));
+    }
+
+    @Override
+    public long updateEpic(Epic epic) {
+        return write(() -> manager.updateEpic(epic));
+    }
+
+    @Override
+    public long updateTask(Task task, long expectedVersion) {
+        return write(() -> manager.updateTask(task, expectedVersion));  // the check and the update under one lock
+    }
+
+    @Override
+    public long updateEpic(Epic epic, long expectedVersion) {
+        return write(() -> manager.updateEpic(epic, expectedVersion));
+    }
+
+    @Override
+    public long updateSubtask(Subtask subtask, long expectedVersion) {
+        return write(() -> manager.updateSubtask(subtask, expectedVersion));
+    }
+
+    @Override
+    public long updateSubtask(Subtask subtask) {
+        return write(() -> manager.updateSubtask(subtask));
+    }
+
+    @Override
+    public void deleteTask(int id) {
+        write(() -> manager.deleteTask(id));
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        write(() -> manager.deleteEpic(id));
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        write(() -> manager.deleteSubtask(id));
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        write(manager::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        write(manager::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        write(manager::deleteAllSubtasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(manager::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> manager.getPrioritizedBetween(from, to));
+    }
+
+    @Override
+    public List<Task> getPrioritizedPage(Task after, int limit) {
+        return read(() -> manager.getPrioritizedPage(after, limit));
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(Duration duration, LocalDateTime earliestStart) {
+        return read(() -> manager.findFreeSlot(duration, earliestStart));
+    }
+
+    @Override
+    public int scheduleNewTask(Task task) {
+        return write(() -> manager.scheduleNewTask(task));  // the found slot cannot be taken by another writer
+    }
+
+    @Override
+    public int scheduleNewSubtask(Subtask subtask) {
+        return write(() -> manager.scheduleNewSubtask(subtask));
+    }
+
+    @Override
+    public int[] applyBatch(List<Mutation> mutations) {
+        return write(() -> manager.applyBatch(mutations));
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return read(() -> manager.search(query, limit));
+    }
+
+    @Override
+    public void addDependency(int predecessorId, int successorId) {
+        write(() -> manager.addDependency(predecessorId, successorId));
+    }
+
+    @Override
+    public void removeDependency(int predecessorId, int successorId) {
+        write(() -> manager.removeDependency(predecessorId, successorId));
+    }
+
+    @Override
+    public List<Task> getPredecessors(int id) {
+        return read(() -> manager.getPredecessors(id));
+    }
+
+    @Override
+    public LocalDateTime getEarliestStart(int id) {
+        return write(() -> manager.getEarliestStart(id));  // fills the cache of earliest starts
+    }
+
+    @Override
+    public List<Task> getCriticalPath(int epicId) {
+        return write(() -> manager.getCriticalPath(epicId));  // fills the cache of critical paths
+    }
+
+    @Override
+    public int undo(int steps) {
+        return write(() -> manager.undo(steps));
+    }
+
+    @Override
+    public int redo(int steps) {
+        return write(() -> manager.redo(steps));
+    }
+
+    @Override
+    public void setUndoBudget(long bytes) {
+        write(() -> manager.setUndoBudget(bytes));
+    }
+
+    @Override
+    public int archiveDone(LocalDateTime endedBefore) {
+        return write(() -> manager.archiveDone(endedBefore));
+    }
+
+    @Override
+    public boolean canArchive() {
+        return manager.canArchive();  // fixed by the manager class
+    }
+
+    @Override
+    public void close() {
+        // listener threads are joined before the lock is taken: a listener may be waiting for a read
+        if (manager instanceof InMemoryTaskManager inMemoryManager) {
+            inMemoryManager.closeListeners();
+        }
+        write(manager::close);  // after the running requests
+    }
+
+    @Override
+    public int advanceTime(LocalDateTime now) {
+        return write(() -> manager.advanceTime(now));  // events are published by a single writer
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        write(() -> manager.addListener(listener));  // a new listener gets the changes after the current one
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        manager.removeListener(listener);  // the bus is thread-safe, the listener thread is joined without the lock
+    }
+
+    @Override
+    public List<Task> find(TaskQuery query) {
+        return read(() -> manager.find(query));
+    }
+
+    @Override
+    public long getBoardVersion() {
+        long stamp = lock.tryOptimisticRead();
+        final long version = manager.getBoardVersion();  // a plain field, safe to read during a write
+        return lock.validate(stamp) ? version : read(manager::getBoardVersion);
+    }
+
+    @Override
+    public BoardStats getStats() {
+        return read(manager::getStats);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.yandex.kanban.manager;
+
+public class DependencyCycleException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DependencyCycleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,368 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.util.IntObjectHashMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Comparator.comparingInt;
+
+class DependencyGraph {
+    // "successor cannot start before predecessor finishes" edges between tasks and subtasks.
+    // Nodes keep a topological order updated on every new edge by the Pearce-Kelly algorithm:
+    // only the nodes between the two ends in the current order are visited and renumbered,
+    // and a path back from the successor to the predecessor means a cycle.
+    // Earliest starts are cached per node. A changed node invalidates itself and its descendants only,
+    // an invalid node always has invalid descendants, so invalidation stops at the first invalid one.
+
+    private static final int[] NO_NODES = new int[0];
+
+    private final IntObjectHashMap<Node> nodes = new IntObjectHashMap<>();
+    private final IntObjectHashMap<List<Task>> criticalPaths = new IntObjectHashMap<>();  // by epic ID
+    private int nextOrder;
+    private int stamp;
+
+    private static class Node {
+        private Task task;
+        private int order;
+        private int[] successors = NO_NODES;
+        private int successorCount;
+        private int[] predecessors = NO_NODES;
+        private int predecessorCount;
+        private boolean valid;
+        private LocalDateTime earliestStart;
+        private int mark;
+
+        Node(Task task, int order) {
+            this.task = task;
+            this.order = order;
+        }
+
+        LocalDateTime earliestFinish() {
+            return earliestStart == null ? null : earliestStart.plus(task.getDuration());
+        }
+    }
+
+    boolean addEdge(Task predecessor, Task successor) {
+        // false if the edge is there already
+        if (predecessor.getId() == successor.getId()) {
+            throw new DependencyCycleException("Task #" + predecessor.getId() + " cannot depend on itself");
+        }
+        Node from = nodes.get(predecessor.getId());
+        Node to = nodes.get(successor.getId());
+        if (from != null && to != null) {
+            if (indexOf(from.successors, from.successorCount, successor.getId()) >= 0) {
+                return false;
+            }
+            if (to.order < from.order) {
+                reorder(from, to);  // throws on a cycle before anything is changed
+            }
+        } else {
+            // a new node has no edges, so the edge cannot close a cycle
+            from = node(predecessor);
+            to = node(successor);
+            if (to.order < from.order) {
+                reorder(from, to);
+            }
+        }
+        from.successors = append(from.successors, from.successorCount++, successor.getId());
+        to.predecessors = append(to.predecessors, to.predecessorCount++, predecessor.getId());
+        invalidate(to);
+        return true;
+    }
+
+    boolean removeEdge(int predecessorId, int successorId) {
+        // false if there is no such edge
+        Node from = nodes.get(predecessorId);
+        Node to = nodes.get(successorId);
+        if (from == null || to == null) {
+            return false;
+        }
+        if (removeFrom(from.successors, from.successorCount, successorId)) {
+            from.successorCount--;
+            removeFrom(to.predecessors, to.predecessorCount, predecessorId);
+            to.predecessorCount--;
+            invalidate(to);  // the order stays valid without the edge
+            dropIfAlone(from);
+            dropIfAlone(to);
+            return true;
+        }
+        return false;
+    }
+
+    private void dropIfAlone(Node node) {
+        // a task without edges has no node, archiveDone() relies on that
+        if (node.successorCount == 0 && node.predecessorCount == 0) {
+            nodes.remove(node.task.getId());
+        }
+    }
+
+    void update(Task task) {
+        // the stored task was replaced: its period or epic may have changed
+        Node node = nodes.get(task.getId());
+        if (node == null) {
+            return;
+        }
+        dropCriticalPath(node.task);
+        node.task = task;
+        invalidate(node);
+    }
+
+    void remove(int id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return;
+        }
+        dropCriticalPath(node.task);
+        for (int i = 0; i < node.successorCount; i++) {
+            Node successor = nodes.get(node.successors[i]);
+            removeFrom(successor.predecessors, successor.predecessorCount--, id);
+            invalidate(successor);
+        }
+        for (int i = 0; i < node.predecessorCount; i++) {
+            Node predecessor = nodes.get(node.predecessors[i]);
+            removeFrom(predecessor.successors, predecessor.successorCount--, id);
+        }
+    }
+
+    void clear() {
+        nodes.clear();
+        criticalPaths.clear();
+        nextOrder = 0;
+    }
+
+    void dropCriticalPath(int epicId) {
+        criticalPaths.remove(epicId);
+    }
+
+    boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    int[] getPredecessors(int id) {
+        Node node = nodes.get(id);
+        return node == null ? NO_NODES : Arrays.copyOf(node.predecessors, node.predecessorCount);
+    }
+
+    int[] getSuccessors(int id) {
+        Node node = nodes.get(id);
+        return node == null ? NO_NODES : Arrays.copyOf(node.successors, node.successorCount);
+    }
+
+    LocalDateTime getEarliestStart(Task task) {
+        Node node = nodes.get(task.getId());
+        if (node == null) {
+            return task.getStartTime();  // no dependencies
+        }
+        validate(node);
+        return node.earliestStart;
+    }
+
+    List<Task> getCriticalPath(int epicId, List<Subtask> epicSubtasks) {
+        // the chain of dependencies ending with the latest finishing subtask of the epic
+        List<Task> path = criticalPaths.get(epicId);
+        if (path != null) {
+            return path;
+        }
+        Subtask last = null;
+        LocalDateTime lastFinish = null;
+        for (Subtask subtask : epicSubtasks) {
+            LocalDateTime start = getEarliestStart(subtask);
+            LocalDateTime finish = start == null ? null : start.plus(subtask.getDuration());
+            if (finish != null && (lastFinish == null || finish.isAfter(lastFinish))) {
+                last = subtask;
+                lastFinish = finish;
+            }
+        }
+        path = new ArrayList<>();
+        if (last != null) {
+            path.add(last);
+            Node node = nodes.get(last.getId());
+            while (node != null) {
+                Node driver = drivingPredecessor(node);
+                if (driver != null) {
+                    path.add(driver.task);
+                }
+                node = driver;
+            }
+            Collections.reverse(path);
+        }
+        path = Collections.unmodifiableList(path);
+        criticalPaths.put(epicId, path);
+        return path;
+    }
+
+    private Node drivingPredecessor(Node node) {
+        // the predecessor whose finish postponed the node start, null if the node starts on its own
+        LocalDateTime ownStart = node.task.getStartTime();
+        if (node.earliestStart == null || (ownStart != null && !node.earliestStart.isAfter(ownStart))) {
+            return null;
+        }
+        for (int i = 0; i < node.predecessorCount; i++) {
+            Node predecessor = nodes.get(node.predecessors[i]);
+            if (node.earliestStart.equals(predecessor.earliestFinish())) {
+                return predecessor;
+            }
+        }
+        return null;
+    }
+
+    private Node node(Task task) {
+        Node node = nodes.get(task.getId());
+        if (node == null) {
+            node = new Node(task, nextOrder++);
+            nodes.put(task.getId(), node);
+        }
+        return node;
+    }
+
+    private void reorder(Node from, Node to) {
+        // Pearce-Kelly: the new edge from --> to breaks the order, so the descendants of 'to' ordered
+        // before 'from' and the ancestors of 'from' ordered after 'to' swap their places keeping relative order
+        final int lower = to.order;
+        final int upper = from.order;
+        List<Node> forward = new ArrayList<>();
+        final int forwardMark = ++stamp;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(to);
+        to.mark = forwardMark;
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            forward.add(node);
+            for (int i = 0; i < node.successorCount; i++) {
+                Node next = nodes.get(node.successors[i]);
+                if (next == from) {
+                    throw new DependencyCycleException(String.format(
+                            "Dependency #%d --> #%d closes a cycle", from.task.getId(), to.task.getId()));
+                }
+                if (next.mark != forwardMark && next.order < upper) {
+                    next.mark = forwardMark;
+                    stack.push(next);
+                }
+            }
+        }
+        List<Node> backward = new ArrayList<>();
+        final int backwardMark = ++stamp;
+        stack.push(from);
+        from.mark = backwardMark;
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            backward.add(node);
+            for (int i = 0; i < node.predecessorCount; i++) {
+                Node next = nodes.get(node.predecessors[i]);
+                if (next.mark != backwardMark && next.order > lower) {
+                    next.mark = backwardMark;
+                    stack.push(next);
+                }
+            }
+        }
+        forward.sort(comparingInt(node -> node.order));
+        backward.sort(comparingInt(node -> node.order));
+        int[] orders = new int[forward.size() + backward.size()];
+        int count = 0;
+        for (Node node : backward) {
+            orders[count++] = node.order;
+        }
+        for (Node node : forward) {
+            orders[count++] = node.order;
+        }
+        Arrays.sort(orders);
+        count = 0;
+        for (Node node : backward) {
+            node.order = orders[count++];
+        }
+        for (Node node : forward) {
+            node.order = orders[count++];
+        }
+    }
+
+    private void invalidate(Node node) {
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node next = stack.pop();
+            if (!next.valid) {
+                continue;  // its descendants are invalid already
+            }
+            next.valid = false;
+            dropCriticalPath(next.task);
+            for (int i = 0; i < next.successorCount; i++) {
+                stack.push(nodes.get(next.successors[i]));
+            }
+        }
+    }
+
+    private void validate(Node node) {
+        // invalid ancestors are recomputed in topological order, valid ones stop the walk
+        if (node.valid) {
+            return;
+        }
+        List<Node> stale = new ArrayList<>();
+        final int mark = ++stamp;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        node.mark = mark;
+        while (!stack.isEmpty()) {
+            Node next = stack.pop();
+            stale.add(next);
+            for (int i = 0; i < next.predecessorCount; i++) {
+                Node predecessor = nodes.get(next.predecessors[i]);
+                if (!predecessor.valid && predecessor.mark != mark) {
+                    predecessor.mark = mark;
+                    stack.push(predecessor);
+                }
+            }
+        }
+        stale.sort(comparingInt(n -> n.order));
+        for (Node next : stale) {
+            LocalDateTime start = next.task.getStartTime();
+            for (int i = 0; i < next.predecessorCount; i++) {
+                LocalDateTime finish = nodes.get(next.predecessors[i]).earliestFinish();
+                if (finish != null && (start == null || finish.isAfter(start))) {
+                    start = finish;
+                }
+            }
+            next.earliestStart = start;
+            next.valid = true;
+        }
+    }
+
+    private void dropCriticalPath(Task task) {
+        if (task instanceof Subtask subtask) {
+            criticalPaths.remove(subtask.getEpicId());
+        }
+    }
+
+    private static int indexOf(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] append(int[] ids, int count, int id) {
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, count * 2));
+        }
+        ids[count] = id;
+        return ids;
+    }
+
+    private static boolean removeFrom(int[] ids, int count, int id) {
+        // order of edges does not matter: the last one takes the place of the removed one
+        int index = indexOf(ids, count, id);
+        if (index < 0) {
+            return false;
+        }
+        ids[index] = ids[count - 1];
+        return true;
+    }
+}
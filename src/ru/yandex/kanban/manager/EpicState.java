@@ -0,0 +1,81 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+class EpicState {
+    // Running aggregates of the epic subtasks, updated by the delta of every changed subtask in O(log k)
+
+    private final int[] statusCounts = new int[TaskStatus.values().length];
+    private int subtaskCount;
+    private Duration totalDuration = Duration.ZERO;
+    // start/end time --> number of subtasks with it, to keep min start and max end after removals
+    private final TreeMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Integer> ends = new TreeMap<>();
+
+    void add(Subtask subtask) {
+        statusCounts[subtask.getStatus().ordinal()]++;
+        subtaskCount++;
+        totalDuration = totalDuration.plus(subtask.getDuration());
+        LocalDateTime start = subtask.getStartTime();
+        if (start != null) {
+            starts.merge(start, 1, Integer::sum);
+            ends.merge(subtask.getEndTime(), 1, Integer::sum);
+        }
+    }
+
+    void remove(Subtask subtask) {
+        statusCounts[subtask.getStatus().ordinal()]--;
+        subtaskCount--;
+        totalDuration = totalDuration.minus(subtask.getDuration());
+        LocalDateTime start = subtask.getStartTime();
+        if (start != null) {
+            decrement(starts, start);
+            decrement(ends, subtask.getEndTime());
+        }
+    }
+
+    void clear() {
+        Arrays.fill(statusCounts, 0);
+        subtaskCount = 0;
+        totalDuration = Duration.ZERO;
+        starts.clear();
+        ends.clear();
+    }
+
+    int getSubtaskCount() {
+        return subtaskCount;
+    }
+
+    int getStatusCount(TaskStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    Epic applyTo(Epic epic) {
+        // the epic with the aggregates, the same object if they have not changed
+        final TaskStatus status;
+        if (subtaskCount == 0 || getStatusCount(TaskStatus.NEW) == subtaskCount) {
+            // у Эпика нет подзадач или все они имеют статус NEW --> статус Эпика должен быть NEW
+            status = TaskStatus.NEW;
+        } else if (getStatusCount(TaskStatus.DONE) == subtaskCount) {
+            // если все подзадачи имеют статус DONE --> Эпик считается завершённым — со статусом DONE
+            status = TaskStatus.DONE;
+        } else {
+            status = TaskStatus.IN_PROGRESS;
+        }
+        if (starts.isEmpty()) {  // no subtasks with start time, the epic keeps its own period
+            return epic.withAggregates(status, totalDuration, epic.getStartTime(), epic.getEndTime());
+        }
+        return epic.withAggregates(status, totalDuration, starts.firstKey(), ends.lastKey());
+    }
+
+    private static void decrement(TreeMap<LocalDateTime, Integer> counts, LocalDateTime key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+}
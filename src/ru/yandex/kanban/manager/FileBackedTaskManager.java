@@ -5,11 +5,18 @@ import ru.yandex.kanban.tasks.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
     private final File file;
 
     public FileBackedTaskManager(File file) {
+        this(file, Managers.getDefaultHistory());
+    }
+
+    FileBackedTaskManager(File file, HistoryManager history) {
+        super(new TimeIndexOverlapValidator(), history);
         this.file = file;
     }
 
@@ -37,13 +44,17 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, Managers.getDefaultHistory());
+    }
+
+    static FileBackedTaskManager loadFromFile(File file, HistoryManager history) {
 /*      Example of CSV-file to restore manager from:
 *           id,type,title,status,description,epic
 *           1,TASK,Task1,NEW,Description task1,
 *           2,EPIC,Epic2,DONE,Description epic2,
 *           3,SUBTASK,Sub Task2,DONE,Description sub task3,2
 */
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, history);
         String fileValue;
         try {
             fileValue = Files.readString(file.toPath(), StandardCharsets.UTF_8);
@@ -52,8 +63,11 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             return manager;
         }
         String[] fileLines = fileValue.split(System.lineSeparator());
+        int maxId = 0;
         for (int row = 1; row < fileLines.length; row++) {   // skip 1st line of file as a header
             Task task = CSVFormat.fromString(fileLines[row]);
+            maxId = Math.max(maxId, task.getId());
+            manager.setNextId(task.getId());   // subtask lines refer to the stored epic IDs
             if (task instanceof Epic) {
                 manager.addNewEpic((Epic)task);
             } else if (task instanceof Subtask) {
@@ -62,6 +76,8 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
                 manager.addNewTask(task);
             }
         }
+        manager.setNextId(maxId + 1);
+        manager.clearUndoHistory();  // the loaded board is the starting point, not a change
         return manager;
     }
 
@@ -87,21 +103,24 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     @Override
-    public void updateTask(Task task) {
-        super.updateTask(task);
+    public long updateTask(Task task) {
+        long version = super.updateTask(task);
         save();
+        return version;
     }
 
     @Override
-    public void updateEpic(Epic epic) {
-        super.updateEpic(epic);
+    public long updateEpic(Epic epic) {
+        long version = super.updateEpic(epic);
         save();
+        return version;
     }
 
     @Override
-    public void updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
+    public long updateSubtask(Subtask subtask) {
+        long version = super.updateSubtask(subtask);
         save();
+        return version;
     }
 
     @Override
@@ -122,6 +141,38 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         save();
     }
 
+    @Override
+    public int[] applyBatch(List<Mutation> mutations) {
+        int[] ids = super.applyBatch(mutations);
+        save();   // the whole batch is written at once
+        return ids;
+    }
+
+    @Override
+    public int undo(int steps) {
+        int done = super.undo(steps);
+        save();
+        return done;
+    }
+
+    @Override
+    public int redo(int steps) {
+        int done = super.redo(steps);
+        save();
+        return done;
+    }
+
+    @Override
+    public int archiveDone(LocalDateTime endedBefore) {
+        // the CSV file is the whole board and gets its IDs back in file order on loading
+        throw new UnsupportedOperationException("File board " + file.getName() + " keeps all tasks in its file");
+    }
+
+    @Override
+    public boolean canArchive() {
+        return false;
+    }
+
     @Override
     public void deleteAllTasks() {
         super.deleteAllTasks();
@@ -6,6 +6,7 @@ import ru.yandex.kanban.tasks.Node;
 import java.util.*;
 
 class InMemoryHistoryManager implements HistoryManager {
+    // synchronized: concurrent readers of a task manager record their views here
 
     // Task ID  --> "Noded" Task in doubly-linked list
     private final Map<Integer, Node> nodeStorage = new HashMap<>();
@@ -16,7 +17,7 @@ class InMemoryHistoryManager implements HistoryManager {
     }                            // see also Managers.getDefaultHistory()
 
     @Override
-    public void add(Task task) {
+    public synchronized void add(Task task) {
         if (task == null) {
             throw new RuntimeException("Task is null. InMemoryHistoryManager.add()");
         }
@@ -29,7 +30,7 @@ class InMemoryHistoryManager implements HistoryManager {
     }
 
     @Override
-    public void remove(int id) {
+    public synchronized void remove(int id) {
         Node node = nodeStorage.get(id);
         if (node != null) {
             history.removeNode(node);
@@ -38,12 +39,12 @@ class InMemoryHistoryManager implements HistoryManager {
     }
 
     @Override
-    public List<Task> getHistory() {
+    public synchronized List<Task> getHistory() {
         return history.getTasks();
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         history.clear();
         nodeStorage.clear();
     }
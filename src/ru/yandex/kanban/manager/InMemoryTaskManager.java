@@ -2,9 +2,17 @@ package ru.yandex.kanban.manager;
 
 import ru.yandex.kanban.tasks.Task;
 import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.RecurringTask;
 import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.TaskType;
 import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.util.IntLinkedSet;
+import ru.yandex.kanban.util.IntObjectHashMap;
+import ru.yandex.kanban.util.SortedListView;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -12,36 +20,84 @@ import java.util.*;
 import static java.util.Comparator.comparing;
 import static java.util.Comparator.nullsFirst;
 import static java.util.Comparator.naturalOrder;
+import static ru.yandex.kanban.manager.TimeIndexOverlapValidator.probe;
 
 public class InMemoryTaskManager implements TaskManager {
-    private final HashMap<Integer, Task> tasks = new HashMap<>();
-    private final HashMap<Integer, Epic> epics = new HashMap<>();
-    private final HashMap<Integer, Subtask> subtasks = new HashMap<>();
+    private final IntObjectHashMap<Task> tasks = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Epic> epics = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Subtask> subtasks = new IntObjectHashMap<>();
+    private final IntObjectHashMap<EpicState> epicStates = new IntObjectHashMap<>();
+    private final StatusIndex statusIndex = new StatusIndex();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final TaskEventBus eventBus = new TaskEventBus();
+    private final DependencyGraph dependencies = new DependencyGraph();
+    private final UndoJournal journal = new UndoJournal(UndoJournal.DEFAULT_BUDGET);
+    private TaskTimers timers;  // started by the first advanceTime()
+    private TaskArchive archive;  // created by the first archiveDone()
 
-    private final HistoryManager history = Managers.getDefaultHistory();
+    private final HistoryManager history;
     private int seqId;
 
+    // Board version grows on every change; snapshots are rebuilt lazily on the first read after a change.
+    // ConcurrentTaskManager runs reads under a shared lock, so concurrent readers may build the same snapshot:
+    // the caches are volatile to publish the immutable snapshots safely, whichever one is kept.
+    private long version;
+    private volatile BoardSnapshot<Task> tasksSnapshot;
+    private volatile BoardSnapshot<Epic> epicsSnapshot;
+    private volatile BoardSnapshot<Subtask> subtasksSnapshot;
+    private volatile BoardSnapshot<Task> prioritizedSnapshot;
+    private volatile BoardStats stats;
+
     private static final Comparator<Task> BY_TIME = comparing(Task::getStartTime,
             nullsFirst(naturalOrder()))
             .thenComparing(Task::getId);
     private final TreeSet<Task> tasksByTime = new TreeSet<>(BY_TIME);
+    private final RecurrenceIndex recurrences = new RecurrenceIndex();  // recurring tasks stay out of tasksByTime
+    private final OverlapValidator overlapValidator;
+
+    InMemoryTaskManager() {   // package-private constructors to avoid cross-package access,
+        this(new TimeIndexOverlapValidator());  // see also Managers.getDefault()
+    }
+
+    InMemoryTaskManager(OverlapValidator overlapValidator) {
+        this(overlapValidator, Managers.getDefaultHistory());
+    }
 
-    InMemoryTaskManager() {   // empty package-private constructor to avoid cross-package access,
-    }                         // see also Managers.getDefault()
+    InMemoryTaskManager(OverlapValidator overlapValidator, HistoryManager history) {
+        this.overlapValidator = overlapValidator;  // boards of BoardRegistry have a history each
+        this.history = history;
+    }
+
+    @Override
+    public BoardSnapshot<Task> getTasks() {
+        BoardSnapshot<Task> snapshot = tasksSnapshot;
+        if (snapshot == null) {
+            snapshot = tasksSnapshot = new BoardSnapshot<>(tasks.values(), version);
+        }
+        return snapshot;
+    }
 
     @Override
-    public ArrayList<Task> getTasks() {
-        return new ArrayList<>(tasks.values());
+    public BoardSnapshot<Epic> getEpics() {
+        BoardSnapshot<Epic> snapshot = epicsSnapshot;
+        if (snapshot == null) {
+            snapshot = epicsSnapshot = new BoardSnapshot<>(epics.values(), version);
+        }
+        return snapshot;
     }
 
     @Override
-    public ArrayList<Epic> getEpics() {
-        return new ArrayList<>(epics.values());
+    public BoardSnapshot<Subtask> getSubtasks() {
+        BoardSnapshot<Subtask> snapshot = subtasksSnapshot;
+        if (snapshot == null) {
+            snapshot = subtasksSnapshot = new BoardSnapshot<>(subtasks.values(), version);
+        }
+        return snapshot;
     }
 
     @Override
-    public ArrayList<Subtask> getSubtasks() {
-        return new ArrayList<>(subtasks.values());
+    public long getBoardVersion() {
+        return version;
     }
 
     @Override
@@ -51,18 +107,18 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Subtask> getEpicSubtasks(int id) {
-        Epic epic = getEpicById(id);
+        Epic epic = peekEpic(id);
         if (epic == null) {
             throw new NoSuchElementException("Not found Epic with ID=" + id);
         }
         return epic.getSubtaskIds().stream()
-                .map(subtasks::get)
+                .map(this::peekSubtask)
                 .toList();
     }
 
     @Override
     public Task getTaskById(int id) {
-        Task task = tasks.get(id);
+        Task task = peekTask(id);
         if (task != null) {
             history.add(task);
         }
@@ -80,123 +136,237 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Subtask getSubtaskById(int id) {
-        Subtask subtask = subtasks.get(id);
+        Subtask subtask = peekSubtask(id);
         if (subtask != null) {
             history.add(subtask);
         }
         return subtask;
     }
 
+    @Override
+    public Task peekTask(int id) {
+        Task task = tasks.get(id);
+        return task != null ? task : archived(id, TaskType.TASK);
+    }
+
+    @Override
+    public Epic peekEpic(int id) {
+        return epics.get(id);
+    }
+
+    @Override
+    public Subtask peekSubtask(int id) {
+        Subtask subtask = subtasks.get(id);
+        return subtask != null ? subtask : (Subtask) archived(id, TaskType.SUBTASK);
+    }
+
     @Override
     public int addNewTask(Task task) {
-        if (tasksByTime.stream().anyMatch(t -> overlapped(t, task))) {
+        if (task instanceof RecurringTask rule) {
+            RecurrenceIndex.checkRule(rule);
+        }
+        if (hasOverlap(task)) {
             throw new TaskOverlapException(
                     String.format("Task '%s' period conflicts with existing tasks on adding, start=%s, end=%s",
                             task.getTitle(), task.getStartTime().toString(), task.getEndTime().toString())
             );
         }
         final int id = ++seqId;
-        task.setId(id);
-        tasks.put(id, task);
-        tasksByTime.add(task);
+        Task stored = toStored(task, id, 1);
+        tasks.put(id, stored);
+        indexAdd(stored);
+        statusIndex.update(TaskType.TASK, null, stored);
+        searchIndex.index(stored);
+        tasksChanged();
+        publish(TaskEvent.Kind.CREATED, TaskType.TASK, id, null, stored);
         return id;
     }
 
     @Override
     public int addNewEpic(Epic epic) {
+        if (epic.isSealed()) {
+            epic = new Epic(epic);  // epic fields are derived from subtasks and changed by the manager
+        }
         final int id = ++seqId;
         epic.setId(id);
-        epics.put(id, epic);
-        updateEpicState(epic);
+        epic.setVersion(1);
+        Epic stored = rebuildEpicState(epic);
+        searchIndex.index(stored);
+        epicsChanged();
+        publish(TaskEvent.Kind.CREATED, TaskType.EPIC, id, null, stored);
         return id;
     }
 
     @Override
     public int addNewSubtask(Subtask subtask) {
-        if (tasksByTime.stream().anyMatch(t -> overlapped(t, subtask))) {
+        if (hasOverlap(subtask)) {
             throw new TaskOverlapException(
                     String.format("Subtask '%s' period conflicts with existing tasks on adding, start=%s, end=%s",
                             subtask.getTitle(), subtask.getStartTime().toString(), subtask.getEndTime().toString())
             );
         }
-        final int id = ++seqId;
-        subtask.setId(id);
         final int epicId = subtask.getEpicId();
-        Epic epic = getEpicById(epicId);
+        Epic epic = peekEpic(epicId);
         if (epic == null) {
-            throw new NoSuchElementException("Not found Epic with ID=" + epicId + " specified for subtask #" + id);
+            throw new NoSuchElementException("Not found Epic with ID=" + epicId + " specified for " + subtask);
         }
-        subtasks.put(id, subtask);
-        epic.addSubtaskId(id);
-        tasksByTime.add(subtask);
-        updateEpicState(epic);
+        final int id = ++seqId;
+        Subtask stored = toStored(subtask, id, 1);
+        subtasks.put(id, stored);
+        statusIndex.update(TaskType.SUBTASK, null, stored);
+        searchIndex.index(stored);
+        indexAdd(stored);
+        EpicState epicState = epicStates.get(epicId);
+        epicState.add(stored);
+        applyEpicState(epic.withSubtaskId(id), epicState);
+        subtasksChanged();
+        publish(TaskEvent.Kind.CREATED, TaskType.SUBTASK, id, null, stored);
         return id;
     }
 
     @Override
-    public void updateTask(Task task) {
+    public long updateTask(Task task) {
         final int taskId = task.getId();
-        if (tasksByTime.stream().anyMatch(t -> overlapped(t, task))) {
-            throw new TaskOverlapException(
-                    String.format("Task #%d period conflicts with existing tasks on update, start=%s, end=%s",
-                            taskId, task.getStartTime().toString(), task.getEndTime().toString())
-            );
-        }
-        Task existingTask = getTaskById(taskId);
+        restore(taskId);
+        Task existingTask = peekTask(taskId);
         if (existingTask == null) {
             throw new NoSuchElementException("Task with ID=" + taskId + " not found. Cannot update " + task);
         }
+        if (task instanceof RecurringTask rule) {
+            RecurrenceIndex.checkRule(rule);
+        }
         if (!task.equals(existingTask)) {
-            tasks.put(taskId, task);
-            // remove-add to place task to the correct node in the tree set
-            tasksByTime.remove(task);
-            tasksByTime.add(task);
+            // the old period of the task must not conflict with the new one
+            indexRemove(existingTask);
+            if (hasOverlap(task)) {
+                indexAdd(existingTask);
+                throw new TaskOverlapException(
+                        String.format("Task #%d period conflicts with existing tasks on update, start=%s, end=%s",
+                                taskId, task.getStartTime().toString(), task.getEndTime().toString())
+                );
+            }
+            Task stored = toStored(task, taskId, existingTask.getVersion() + 1);
+            tasks.put(taskId, stored);
+            indexAdd(stored);
+            statusIndex.update(TaskType.TASK, existingTask, stored);
+            searchIndex.index(stored);
+            dependencies.update(stored);
+            tasksChanged();
+            publish(TaskEvent.Kind.UPDATED, TaskType.TASK, taskId, existingTask, stored);
+            return stored.getVersion();
         }
+        return existingTask.getVersion();
     }
 
     @Override
-    public void updateEpic(Epic epic) {
+    public long updateEpic(Epic epic) {
         final int epicId = epic.getId();
-        Epic existingEpic = getEpicById(epicId);
+        Epic existingEpic = peekEpic(epicId);
         if (existingEpic == null) {
             throw new NoSuchElementException("Epic with ID=" + epicId + " not found. Cannot update " + epic);
         }
-        epics.put(epicId, epic);
-        updateEpicState(epic);
+        if (epic.isSealed()) {
+            epic = new Epic(epic);
+        }
+        epic.setVersion(existingEpic.getVersion() + 1);
+        Epic stored = rebuildEpicState(epic);
+        searchIndex.index(stored);
+        epicsChanged();
+        publish(TaskEvent.Kind.UPDATED, TaskType.EPIC, epicId, existingEpic, stored);
+        return stored.getVersion();
     }
 
     @Override
-    public void updateSubtask(Subtask subtask) {
-        final int subtaskId = subtask.getId();
-        if (tasksByTime.stream().anyMatch(t -> overlapped(t, subtask))) {
-            throw new TaskOverlapException(
-                    String.format("Subtask #%d period conflicts with existing tasks on update, start=%s, end=%s",
-                            subtaskId, subtask.getStartTime().toString(), subtask.getEndTime().toString())
-            );
+    public long updateTask(Task task, long expectedVersion) {
+        checkVersion(peekTask(task.getId()), expectedVersion);
+        return updateTask(task);
+    }
+
+    @Override
+    public long updateEpic(Epic epic, long expectedVersion) {
+        checkVersion(peekEpic(epic.getId()), expectedVersion);
+        return updateEpic(epic);
+    }
+
+    @Override
+    public long updateSubtask(Subtask subtask, long expectedVersion) {
+        checkVersion(peekSubtask(subtask.getId()), expectedVersion);
+        return updateSubtask(subtask);
+    }
+
+    private static void checkVersion(Task stored, long expectedVersion) {
+        // a missing task is reported by the update itself
+        if (stored != null && stored.getVersion() != expectedVersion) {
+            throw new StaleVersionException(String.format("%s #%d has version %d, expected %d",
+                    stored.getClass().getSimpleName(), stored.getId(), stored.getVersion(), expectedVersion));
         }
-        Subtask existingSubtask = getSubtaskById(subtaskId);
+    }
+
+    @Override
+    public long updateSubtask(Subtask subtask) {
+        final int subtaskId = subtask.getId();
+        restore(subtaskId);
+        Subtask existingSubtask = peekSubtask(subtaskId);
         if (existingSubtask == null) {
             throw new NoSuchElementException("Subtask with ID=" + subtaskId + " not found. Cannot update " + subtask);
         }
         final int epicId = subtask.getEpicId();
-        Epic epic = getEpicById(epicId);
+        Epic epic = peekEpic(epicId);
         if (epic == null) {
             throw new NoSuchElementException("Not found Epic with ID=" + epicId + " specified for subtask #" + subtaskId);
         }
-        if (!subtask.equals(existingSubtask)) {
-            subtasks.put(subtaskId, subtask);
-            // remove-add to place subtask to the correct node in the tree set
-            tasksByTime.remove(subtask);
-            tasksByTime.add(subtask);
-            updateEpicState(epic);
+        if (!subtask.equals(existingSubtask) || subtask.getEpicId() != existingSubtask.getEpicId()) {
+            // the old period of the subtask must not conflict with the new one
+            indexRemove(existingSubtask);
+            if (hasOverlap(subtask)) {
+                indexAdd(existingSubtask);
+                throw new TaskOverlapException(
+                        String.format("Subtask #%d period conflicts with existing tasks on update, start=%s, end=%s",
+                                subtaskId, subtask.getStartTime().toString(), subtask.getEndTime().toString())
+                );
+            }
+            Subtask stored = toStored(subtask, subtaskId, existingSubtask.getVersion() + 1);
+            subtasks.put(subtaskId, stored);
+            indexAdd(stored);
+            statusIndex.update(TaskType.SUBTASK, existingSubtask, stored);
+            searchIndex.index(stored);
+            dependencies.update(stored);
+            final int oldEpicId = existingSubtask.getEpicId();
+            EpicState oldEpicState = epicStates.get(oldEpicId);
+            if (oldEpicState != null) {
+                oldEpicState.remove(existingSubtask);
+            }
+            if (oldEpicId != epicId) {  // subtask moved to another epic
+                Epic oldEpic = epics.get(oldEpicId);
+                if (oldEpic != null) {
+                    applyEpicState(oldEpic.withoutSubtaskId(subtaskId), oldEpicState);
+                }
+                epic = epic.withSubtaskId(subtaskId);
+            }
+            EpicState epicState = epicStates.get(epicId);
+            epicState.add(stored);
+            applyEpicState(epic, epicState);
+            subtasksChanged();
+            publish(TaskEvent.Kind.UPDATED, TaskType.SUBTASK, subtaskId, existingSubtask, stored);
+            return stored.getVersion();
         }
+        return existingSubtask.getVersion();
     }
 
     @Override
     public void deleteTask(int id) {
-        tasksByTime.remove(tasks.get(id));
-        tasks.remove(id);
+        restore(id);
+        Task task = tasks.remove(id);
+        if (task == null) {
+            return;
+        }
+        indexRemove(task);
+        statusIndex.remove(TaskType.TASK, task);
+        searchIndex.remove(id);
+        dropDependencies(id);
         history.remove(id);
+        tasksChanged();
+        publish(TaskEvent.Kind.DELETED, TaskType.TASK, id, task, null);
     }
 
     @Override
@@ -204,108 +374,1094 @@ public class InMemoryTaskManager implements TaskManager {
         if (!epics.containsKey(id)) {
             return;
         }
-        Epic epic = getEpicById(id);
+        journal.begin();  // the epic and its subtasks are one undo step
+        try {
+            deleteEpicWithSubtasks(id);
+        } finally {
+            journal.end();
+        }
+    }
+
+    private void deleteEpicWithSubtasks(int id) {
+        Epic epic = peekEpic(id);
         epics.remove(id);
+        epicStates.remove(id);
+        statusIndex.remove(TaskType.EPIC, id);
+        searchIndex.remove(id);
+        dependencies.dropCriticalPath(id);
         history.remove(id);
+        epicsChanged();
+        publish(TaskEvent.Kind.DELETED, TaskType.EPIC, id, epic, null);
         if (epic != null) {
-            for (Integer subtaskId : epic.getSubtaskIds()) {
-                deleteSubtask(subtaskId);
-            }
+            epic.forEachSubtaskId(this::deleteSubtask);
         }
     }
 
     @Override
     public void deleteSubtask(int id) {
+        restore(id);
         if (!subtasks.containsKey(id)) {
             return;
         }
-        Subtask subtask = getSubtaskById(id);
+        Subtask subtask = peekSubtask(id);
         final int epicId = subtask.getEpicId();
-        tasksByTime.remove(subtask);
+        indexRemove(subtask);
         subtasks.remove(id);
+        statusIndex.remove(TaskType.SUBTASK, subtask);
+        searchIndex.remove(id);
+        dropDependencies(id);
         history.remove(id);
-        Epic epic = getEpicById(epicId);
+        Epic epic = peekEpic(epicId);
         if (epic != null) {
-            epic.removeSubtaskId(id);
-            updateEpicState(epic);
+            EpicState epicState = epicStates.get(epicId);
+            epicState.remove(subtask);
+            applyEpicState(epic.withoutSubtaskId(id), epicState);
         }
+        subtasksChanged();
+        publish(TaskEvent.Kind.DELETED, TaskType.SUBTASK, id, subtask, null);
     }
 
     @Override
     public void deleteAllTasks() {
+        restoreAll(TaskType.TASK);  // to be deleted with events and undo like the others
+        searchIndex.removeAll(tasks::containsKey);
+        tasks.forEachKey(this::dropDependencies);
+        indexRemoveAll(TaskType.TASK);  // subtasks keep their periods
+        List<Task> deleted = observed() ? new ArrayList<>(tasks.values()) : List.of();
         tasks.clear();
+        statusIndex.clear(TaskType.TASK);
         history.clear();
-        tasksByTime.clear();
+        tasksChanged();
+        publishDeleted(TaskType.TASK, deleted);
     }
 
     @Override
     public void deleteAllEpics() {
+        journal.begin();
+        try {
+            deleteEpicsWithSubtasks();
+        } finally {
+            journal.end();
+        }
+    }
+
+    private void deleteEpicsWithSubtasks() {
+        searchIndex.removeAll(epics::containsKey);
+        List<Epic> deleted = observed() ? new ArrayList<>(epics.values()) : List.of();
         epics.clear();
+        epicStates.clear();
+        statusIndex.clear(TaskType.EPIC);
+        epicsChanged();
+        publishDeleted(TaskType.EPIC, deleted);
         deleteAllSubtasks();
     }
 
     @Override
     public void deleteAllSubtasks() {
-        for (Subtask subtask : subtasks.values()) {
-            tasksByTime.remove(subtask);
-        }
+        restoreAll(TaskType.SUBTASK);
+        searchIndex.removeAll(subtasks::containsKey);
+        subtasks.forEachKey(this::dropDependencies);
+        indexRemoveAll(TaskType.SUBTASK);
+        List<Subtask> deleted = observed() ? new ArrayList<>(subtasks.values()) : List.of();
         subtasks.clear();
-        for (Integer epicId : epics.keySet()) {
-            updateEpicState(getEpicById(epicId));
+        statusIndex.clear(TaskType.SUBTASK);
+        // every epic owns its state, so the states are reset and the new epics built in parallel parts,
+        // then the shared maps and indexes take them in one pass
+        List<Epic> emptied = new ArrayList<>(epics.values());
+        Partitions.replaceAll(emptied, epic -> {
+            EpicState epicState = epicStates.get(epic.getId());
+            epicState.clear();
+            return epicState.applyTo(epic.withoutSubtaskIds());
+        });
+        for (Epic epic : emptied) {
+            epics.put(epic.getId(), epic);
+            epicStateChanged(epic);
         }
+        epicsSnapshot = null;
+        subtasksChanged();
+        publishDeleted(TaskType.SUBTASK, deleted);
     }
 
     @Override
-    public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(tasksByTime);
+    public List<Task> find(TaskQuery query) {
+        final TaskStatus status = query.getStatus();
+        final Integer epicId = query.getEpicId();
+        final TaskType type = query.getType();
+        List<Task> found = new ArrayList<>();
+        if (epicId != null) {
+            // only subtasks belong to epics: intersect the epic subtasks with the status index
+            Epic epic = epics.get(epicId);
+            if (epic == null || (type != null && type != TaskType.SUBTASK)) {
+                return found;
+            }
+            if (status == null) {
+                epic.forEachSubtaskId(id -> {
+                    Subtask subtask = subtasks.get(id);
+                    if (subtask != null) {  // heap tier only, like the lists and search
+                        found.add(subtask);
+                    }
+                });
+            } else {
+                IntLinkedSet withStatus = statusIndex.get(TaskType.SUBTASK, status);
+                if (withStatus.size() < epic.getSubtaskIds().size()) {
+                    withStatus.forEach(id -> {
+                        if (epic.hasSubtaskId(id)) {
+                            found.add(subtasks.get(id));
+                        }
+                    });
+                } else {
+                    epic.forEachSubtaskId(id -> {
+                        if (withStatus.contains(id)) {
+                            found.add(subtasks.get(id));
+                        }
+                    });
+                }
+            }
+            return found;
+        }
+        for (TaskType taskType : TaskType.values()) {
+            if (type != null && type != taskType) {
+                continue;
+            }
+            IntObjectHashMap<? extends Task> storage = switch (taskType) {
+                case TASK -> tasks;
+                case EPIC -> epics;
+                case SUBTASK -> subtasks;
+            };
+            if (status == null) {
+                found.addAll(storage.values());
+            } else {
+                statusIndex.get(taskType, status).forEach(id -> found.add(storage.get(id)));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        List<Task> found = new ArrayList<>();
+        searchIndex.search(query, limit).forEach(id -> {
+            Task task = tasks.get(id);
+            if (task == null) {
+                task = subtasks.get(id);
+            }
+            found.add(task != null ? task : epics.get(id));
+        });
+        return found;
     }
 
-    private boolean overlapped(Task task1, Task task2) {
-        LocalDateTime start1 = task1.getStartTime();
-        LocalDateTime start2 = task2.getStartTime();
-        if (start1 == null || start2 == null) {
-            return true;
+    @Override
+    public BoardStats getStats() {
+        // status counts and planned minutes are kept by statusIndex, epic progress by epicStates
+        BoardStats snapshot = stats;
+        if (snapshot == null || snapshot.getVersion() != version) {
+            Map<TaskType, Map<TaskStatus, Integer>> counts = BoardStats.newCounts();
+            for (TaskType type : TaskType.values()) {
+                for (TaskStatus status : TaskStatus.values()) {
+                    counts.get(type).put(status, statusIndex.get(type, status).size());
+                }
+            }
+            Map<Integer, Integer> epicProgress = new LinkedHashMap<>();
+            epics.forEachKey(id -> {
+                EpicState epicState = epicStates.get(id);
+                final int subtaskCount = epicState.getSubtaskCount();
+                epicProgress.put(id, subtaskCount == 0
+                        ? 0
+                        : (int) (100L * epicState.getStatusCount(TaskStatus.DONE) / subtaskCount));
+            });
+            long plannedMinutes = statusIndex.getPlannedMinutes(TaskType.TASK)
+                    + statusIndex.getPlannedMinutes(TaskType.SUBTASK);
+            if (archive != null) {  // archived tasks are all DONE
+                for (TaskType type : List.of(TaskType.TASK, TaskType.SUBTASK)) {
+                    counts.get(type).merge(TaskStatus.DONE, archive.getCount(type), Integer::sum);
+                    plannedMinutes += archive.getPlannedMinutes(type);
+                }
+            }
+            snapshot = stats = new BoardStats(counts, plannedMinutes, epicProgress, version);
         }
-        LocalDateTime end1 = task1.getEndTime();
-        LocalDateTime end2 = task2.getEndTime();
-        return (start1.isBefore(start2) && end1.isAfter(start2)) ||
-                (start1.isBefore(end2) && end1.isAfter(end2));
+        return snapshot;
     }
 
-    private void updateEpicState(Epic epic) {
-        HashSet<TaskStatus> subtaskStatusSet = new HashSet<>();
-        Duration totalDuration = Duration.ofMinutes(0);
-        LocalDateTime minStart = LocalDateTime.MAX;
-        LocalDateTime maxEnd = LocalDateTime.MIN;
-        for (Integer subtaskId : epic.getSubtaskIds()) {
-            Subtask subtask = getSubtaskById(subtaskId);
-            if (subtask == null) {
-                continue;
+    @Override
+    public BoardSnapshot<Task> getPrioritizedTasks() {
+        BoardSnapshot<Task> snapshot = prioritizedSnapshot;
+        if (snapshot == null) {
+            // occurrences of recurring tasks are expanded here, once per board version
+            snapshot = prioritizedSnapshot = new BoardSnapshot<>(recurrences.isEmpty() ? tasksByTime
+                    : merge(tasksByTime.iterator(), recurrences.occurrencesAfter(null), Integer.MAX_VALUE), version);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public List<Task> getPrioritizedBetween(LocalDateTime from, LocalDateTime to) {
+        // tasks running at any moment of [from, to): O(log n + k), the time index is not copied
+        List<Task> found = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return found;
+        }
+        Task before = tasksByTime.lower(probe(from, Integer.MIN_VALUE));
+        if (before != null && before.getStartTime() != null) {
+            // only a period started at the same moment as the latest earlier one can still run at 'from'
+            LocalDateTime start = before.getStartTime();
+            for (Task task : tasksByTime.subSet(probe(start, Integer.MIN_VALUE), true,
+                    probe(start, Integer.MAX_VALUE), true)) {
+                if (task.getEndTime().isAfter(from)) {
+                    found.add(task);
+                }
+            }
+        }
+        found.addAll(tasksByTime.subSet(probe(from, Integer.MIN_VALUE), true, probe(to, Integer.MIN_VALUE), false));
+        List<Task> occurrences = recurrences.occurrencesBetween(from, to);
+        final int heapSize = found.size();
+        if (archive != null) {
+            archive.forEachBetween(from, to, found::add);
+        }
+        if (!occurrences.isEmpty() || found.size() > heapSize) {
+            found.addAll(occurrences);
+            found.sort(BY_TIME);
+        }
+        return found;
+    }
+
+    @Override
+    public List<Task> getPrioritizedPage(Task after, int limit) {
+        // 'after' is the last task of the previous page (null for the first page); it may be deleted already
+        Iterator<Task> iterator = (after == null ? tasksByTime : tasksByTime.tailSet(after, false)).iterator();
+        if (!recurrences.isEmpty()) {
+            return merge(iterator, recurrences.occurrencesAfter(after), limit);
+        }
+        List<Task> page = new ArrayList<>(Math.min(limit, tasksByTime.size()));
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(Duration duration, LocalDateTime earliestStart) {
+        // Walks the time index from the earliest start, so the cost is O(log n + periods passed by),
+        // the gaps between stored periods are the free slots. Returns null if there is no slot at all.
+        if (!tasksByTime.isEmpty() && tasksByTime.first().getStartTime() == null) {
+            return null;  // task without start time conflicts with any other one
+        }
+        LocalDateTime candidate = earliestStart;
+        while (true) {
+            // a gap between stored periods may be taken by an occurrence of a recurring task
+            LocalDateTime gap = findGap(duration, candidate);
+            candidate = skipArchived(recurrences.skipOccurrences(gap, duration), duration);
+            if (candidate.equals(gap)) {
+                return gap;
+            }
+        }
+    }
+
+    private LocalDateTime skipArchived(LocalDateTime candidate, Duration duration) {
+        // moves the candidate slot past the archived periods it overlaps, they are reserved like the heap ones
+        if (archive == null || archive.size() == 0) {
+            return candidate;
+        }
+        LocalDateTime[] end = {candidate};
+        do {
+            candidate = end[0];
+            archive.forEachBetween(candidate, candidate.plus(duration), archived -> {
+                if (archived.getEndTime().isAfter(end[0])) {
+                    end[0] = archived.getEndTime();
+                }
+            });
+        } while (!end[0].equals(candidate));
+        return candidate;
+    }
+
+    private LocalDateTime findGap(Duration duration, LocalDateTime earliestStart) {
+        LocalDateTime candidate = earliestStart;
+        Task before = tasksByTime.lower(probe(earliestStart, Integer.MIN_VALUE));
+        if (before != null) {
+            LocalDateTime start = before.getStartTime();
+            for (Task task : tasksByTime.subSet(probe(start, Integer.MIN_VALUE), true,
+                    probe(start, Integer.MAX_VALUE), true)) {
+                if (task.getEndTime().isAfter(candidate)) {
+                    candidate = task.getEndTime();
+                }
+            }
+        }
+        for (Task task : tasksByTime.tailSet(probe(earliestStart, Integer.MIN_VALUE), true)) {
+            if (!task.getStartTime().isBefore(candidate.plus(duration))) {
+                break;  // this and all later periods start after the candidate ends
+            }
+            if (candidate.isBefore(task.getEndTime())) {  // same check as OverlapValidator.overlapped()
+                candidate = task.getEndTime();
+            }
+        }
+        return candidate;
+    }
+
+    @Override
+    public int scheduleNewTask(Task task) {
+        LocalDateTime slot = findSlotFor(task);
+        if (task.isSealed()) {
+            return addNewTask(task.withStartTime(slot));
+        }
+        task.setStartTime(slot);
+        return addNewTask(task);
+    }
+
+    @Override
+    public int scheduleNewSubtask(Subtask subtask) {
+        LocalDateTime slot = findSlotFor(subtask);
+        if (subtask.isSealed()) {
+            return addNewSubtask(subtask.withStartTime(slot));
+        }
+        subtask.setStartTime(slot);
+        return addNewSubtask(subtask);
+    }
+
+    private LocalDateTime findSlotFor(Task task) {
+        LocalDateTime earliestStart = task.getStartTime() == null ? LocalDateTime.now() : task.getStartTime();
+        LocalDateTime slot = findFreeSlot(task.getDuration(), earliestStart);
+        if (slot == null) {
+            throw new TaskOverlapException(String.format("No free slot for '%s' from %s, duration=%s",
+                    task.getTitle(), earliestStart, task.getDuration()));
+        }
+        return slot;
+    }
+
+    @Override
+    public int[] applyBatch(List<Mutation> mutations) {
+        // All or nothing: the whole batch is checked against the board before anything is changed.
+        // Returns IDs in the order of mutations, new tasks get theirs like in addNew...() methods.
+        if (mutations.isEmpty()) {
+            return new int[0];
+        }
+        for (Mutation mutation : mutations) {  // archived tasks are changed on the heap
+            if (mutation.getKind() == Mutation.Kind.DELETE && mutation.getType() == TaskType.EPIC) {
+                Epic epic = epics.get(mutation.getId());
+                if (epic != null) {
+                    epic.forEachSubtaskId(this::restore);
+                }
+            } else if (mutation.getKind() != Mutation.Kind.ADD) {
+                restore(mutation.getId());
             }
-            subtaskStatusSet.add(subtask.getStatus());
-            totalDuration.plus(subtask.getDuration());
-            LocalDateTime start = subtask.getStartTime();
-            LocalDateTime end = subtask.getEndTime();
-            if (start.isBefore(minStart)) {
-                minStart = start;
+        }
+        Batch batch = new Batch();
+        final int[] ids = new int[mutations.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = batch.stage(mutations.get(i));
+        }
+        batch.checkOverlaps();
+        journal.begin();
+        try {
+            batch.apply();
+        } finally {
+            journal.end();
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> T toStored(T task, int id, long version) {
+        // Stored tasks and subtasks are sealed, so readers get them without copies and nobody can move
+        // them in the time index behind the manager's back. A sealed task of the same ID and version is stored as is.
+        if (task.isSealed() && task.getId() == id && task.getVersion() == version) {
+            return task;
+        }
+        if (!task.isSealed()) {
+            task.setId(id);  // the caller's task gets its ID and version as before
+            task.setVersion(version);
+            return (T) task.seal();
+        }
+        Task stored = task.getId() == id ? task : task.withId(id);
+        return (T) (stored.getVersion() == version ? stored : stored.withVersion(version));
+    }
+
+    @Override
+    public void addDependency(int predecessorId, int successorId) {
+        restore(predecessorId);
+        restore(successorId);
+        journal.begin();  // the edge alone is one undo step
+        try {
+            if (dependencies.addEdge(peekScheduled(predecessorId), peekScheduled(successorId))) {
+                journal.recordEdge(predecessorId, successorId, true);
             }
-            if (end.isAfter(maxEnd)) {
-                maxEnd = end;
+        } finally {
+            journal.end();
+        }
+        version++;
+    }
+
+    @Override
+    public void removeDependency(int predecessorId, int successorId) {
+        journal.begin();
+        try {
+            if (dependencies.removeEdge(predecessorId, successorId)) {
+                journal.recordEdge(predecessorId, successorId, false);
+            }
+        } finally {
+            journal.end();
+        }
+        version++;
+    }
+
+    private void dropDependencies(int id) {
+        // the dropped edges join the undo step of the deletion
+        if (journal.isRecording()) {
+            for (int predecessorId : dependencies.getPredecessors(id)) {
+                journal.recordEdge(predecessorId, id, false);
             }
+            for (int successorId : dependencies.getSuccessors(id)) {
+                journal.recordEdge(id, successorId, false);
+            }
+        }
+        dependencies.remove(id);
+    }
+
+    @Override
+    public List<Task> getPredecessors(int id) {
+        List<Task> predecessors = new ArrayList<>();
+        for (int predecessorId : dependencies.getPredecessors(id)) {
+            predecessors.add(peekScheduled(predecessorId));
+        }
+        return predecessors;
+    }
+
+    @Override
+    public LocalDateTime getEarliestStart(int id) {
+        return dependencies.getEarliestStart(peekScheduled(id));
+    }
+
+    @Override
+    public List<Task> getCriticalPath(int epicId) {
+        return dependencies.getCriticalPath(epicId, getEpicSubtasks(epicId));
+    }
+
+    private Task peekScheduled(int id) {
+        // dependencies link tasks and subtasks, epics get their periods from subtasks
+        Task task = tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id);
+        if (task == null) {
+            throw new NoSuchElementException("Not found task or subtask with ID=" + id);
         }
-        if (subtaskStatusSet.isEmpty() || (subtaskStatusSet.size() == 1 && subtaskStatusSet.contains(TaskStatus.NEW))) {
-            // у Эпика нет подзадач или все они имеют статус NEW --> статус Эпика должен быть NEW
-            epic.setStatus(TaskStatus.NEW);
-        } else if (subtaskStatusSet.size() == 1 && subtaskStatusSet.contains(TaskStatus.DONE)) {
-            // если все подзадачи имеют статус DONE --> Эпик считается завершённым — со статусом DONE
-            epic.setStatus(TaskStatus.DONE);
+        return task;
+    }
+
+    @Override
+    public int undo(int steps) {
+        int done = 0;
+        for (UndoJournal.Step step; done < steps && (step = journal.peekUndo()) != null; done++) {
+            replay(step, true);
+            journal.undone();
+        }
+        return done;
+    }
+
+    @Override
+    public int redo(int steps) {
+        int done = 0;
+        for (UndoJournal.Step step; done < steps && (step = journal.peekRedo()) != null; done++) {
+            replay(step, false);
+            journal.redone();
+        }
+        return done;
+    }
+
+    @Override
+    public void setUndoBudget(long bytes) {
+        journal.setBudget(bytes);
+    }
+
+    void clearUndoHistory() {
+        journal.clear();
+    }
+
+    void setNextId(int nextId) {
+        // the next added task, epic or subtask gets this ID, so a loaded board keeps the stored ones
+        seqId = nextId - 1;
+    }
+
+    private void replay(UndoJournal.Step step, boolean undo) {
+        // The step values are put back through a batch, so the cost depends on the step only.
+        // Epics go first as subtasks are staged into existing epics, deleted IDs go last.
+        // Archived tasks of the step come back to the heap first, like the ones of applyBatch().
+        // Dependency edges are replayed after the tasks, in reverse order for undo.
+        List<UndoJournal.Change> changes = step.getChanges();
+        for (UndoJournal.Change change : changes) {
+            restore(change.id);
+        }
+        List<UndoJournal.EdgeChange> edges = undo ? step.getEdges().reversed() : step.getEdges();
+        for (UndoJournal.EdgeChange edge : edges) {
+            restore(edge.predecessorId);
+            restore(edge.successorId);
+        }
+        Batch batch = new Batch(true);
+        for (UndoJournal.Change change : changes) {
+            Task target = undo ? change.before : change.after;
+            if (change.type == TaskType.EPIC && target != null) {
+                batch.put(TaskType.EPIC, change.id, new Epic((Epic) target));
+            }
+        }
+        for (UndoJournal.Change change : changes) {
+            Task target = undo ? change.before : change.after;
+            if (change.type != TaskType.EPIC && target != null) {
+                batch.put(change.type, change.id, target);
+            }
+        }
+        for (UndoJournal.Change change : changes) {
+            if ((undo ? change.before : change.after) == null && change.type != TaskType.EPIC) {
+                batch.delete(change.type, change.id);
+            }
+        }
+        for (UndoJournal.Change change : changes) {
+            if ((undo ? change.before : change.after) == null && change.type == TaskType.EPIC) {
+                batch.delete(TaskType.EPIC, change.id);
+            }
+        }
+        batch.checkOverlaps();
+        journal.replaying(batch::apply);
+        for (UndoJournal.EdgeChange edge : edges) {
+            if (edge.added != undo) {
+                dependencies.addEdge(peekScheduled(edge.predecessorId), peekScheduled(edge.successorId));
+            } else {
+                dependencies.removeEdge(edge.predecessorId, edge.successorId);
+            }
+        }
+        if (!edges.isEmpty()) {
+            version++;
+        }
+    }
+
+    @Override
+    public int archiveDone(LocalDateTime endedBefore) {
+        // Moves DONE tasks and subtasks ended before the time to the archive file. Recurring tasks and the ones
+        // with dependencies stay. Epics keep the IDs and aggregates of archived subtasks. Archived periods
+        // stay in the overlap checks and free slot search, so restore() can put them back to the time index.
+        List<Task> done = new ArrayList<>();
+        for (TaskType type : List.of(TaskType.TASK, TaskType.SUBTASK)) {
+            statusIndex.get(type, TaskStatus.DONE).forEach(id -> {
+                Task task = type == TaskType.TASK ? tasks.get(id) : subtasks.get(id);
+                if (!(task instanceof RecurringTask) && task.getStartTime() != null
+                        && task.getEndTime().isBefore(endedBefore) && !dependencies.contains(id)) {
+                    done.add(task);
+                }
+            });
+        }
+        if (done.isEmpty()) {
+            return 0;
+        }
+        done.sort(BY_TIME);
+        if (archive == null) {
+            archive = new TaskArchive(createArchiveFile());
+        }
+        archive.append(done);  // written before anything leaves the heap
+        for (Task task : done) {
+            final int id = task.getId();
+            if (task instanceof Subtask) {
+                subtasks.remove(id);
+                statusIndex.remove(TaskType.SUBTASK, task);
+            } else {
+                tasks.remove(id);
+                statusIndex.remove(TaskType.TASK, task);
+            }
+            indexRemove(task);
+            searchIndex.remove(id);
+            if (timers != null) {
+                timers.cancel(id);
+            }
+        }
+        tasksChanged();
+        subtasksChanged();
+        return done.size();
+    }
+
+    @Override
+    public boolean canArchive() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        eventBus.close();
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
+    void closeListeners() {
+        eventBus.close();
+    }
+
+    Path createArchiveFile() {
+        try {
+            Path file = Files.createTempFile("kanban-archive-", ".bin");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Archive file cannot be created: " + exception.getMessage(), exception);
+        }
+    }
+
+    private Task archived(int id, TaskType type) {
+        // read from the archive file, null if the ID is not an archived task of the type
+        Task task = archive == null ? null : archive.get(id);
+        return task == null || (task instanceof Subtask) == (type == TaskType.SUBTASK) ? task : null;
+    }
+
+    private void restore(int id) {
+        // back to the heap tier before a change; epics have kept archived subtasks all along
+        if (archive != null && archive.contains(id)) {
+            restore(archive.remove(id));
+        }
+    }
+
+    private void restoreAll(TaskType type) {
+        if (archive != null && archive.getCount(type) > 0) {
+            archive.removeAll(type).forEach(this::restore);
+        }
+    }
+
+    private void restore(Task task) {
+        final int id = task.getId();
+        if (task instanceof Subtask subtask) {
+            subtasks.put(id, subtask);
+            statusIndex.update(TaskType.SUBTASK, null, subtask);
+            subtasksChanged();
         } else {
-            epic.setStatus(TaskStatus.IN_PROGRESS);
+            tasks.put(id, task);
+            statusIndex.update(TaskType.TASK, null, task);
+            tasksChanged();
+        }
+        indexAdd(task);
+        searchIndex.index(task);
+    }
+
+    @Override
+    public int advanceTime(LocalDateTime now) {
+        if (timers == null) {  // fed once from the time index, then kept up to date by publish()
+            timers = new TaskTimers(now);
+            tasksByTime.forEach(timers::schedule);
+            recurrences.forEach(timers::schedule);
+            return 0;
+        }
+        return timers.advance(now, id -> tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id),
+                (kind, task) -> eventBus.publish(kind, task instanceof Subtask ? TaskType.SUBTASK : TaskType.TASK,
+                        task.getId(), null, task, version));
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        eventBus.subscribe(listener);
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        eventBus.unsubscribe(listener);
+    }
+
+    private void publish(TaskEvent.Kind kind, TaskType type, int id, Task oldValue, Task newValue) {
+        journal.record(type, id, oldValue, newValue);
+        if (timers != null && type != TaskType.EPIC) {  // epic times follow the subtask ones
+            if (newValue == null) {
+                timers.cancel(id);
+            } else {
+                timers.schedule(newValue);
+            }
+        }
+        eventBus.publish(kind, type, id, oldValue, newValue, version);
+    }
+
+    private void publishDeleted(TaskType type, List<? extends Task> deleted) {
+        journal.begin();  // one undo step for the whole list
+        try {
+            deleted.forEach(task -> publish(TaskEvent.Kind.DELETED, type, task.getId(), task, null));
+        } finally {
+            journal.end();
+        }
+    }
+
+    private boolean observed() {
+        // old values are collected for events only if somebody gets them
+        return eventBus.hasSubscribers() || journal.isRecording() || timers != null;
+    }
+
+    private boolean hasOverlap(Task task) {
+        // a recurring task is checked by its rule, not by its occurrences
+        if (task instanceof RecurringTask rule) {
+            return recurrences.hasOverlap(tasksByTime, rule) || (archive != null
+                    && archive.anyBetween(rule.getStartTime(), rule.getLastEndTime(),
+                            archived -> RecurrenceIndex.overlaps(rule, archived.getStartTime(), archived.getEndTime())));
+        }
+        return overlapValidator.hasOverlap(tasksByTime, task) || recurrences.hasOverlap(task) || hasArchivedOverlap(task);
+    }
+
+    private boolean hasArchivedOverlap(Task task) {
+        // archived periods stay reserved, so a restored task never conflicts with the heap tier
+        if (archive == null || archive.size() == 0) {
+            return false;
+        }
+        return task.getStartTime() == null
+                || archive.anyBetween(task.getStartTime(), task.getEndTime(), archived -> true);
+    }
+
+    private void indexAdd(Task task) {
+        if (task instanceof RecurringTask rule) {
+            recurrences.add(rule);
+        } else if (tasksByTime.add(task)) {
+            overlapValidator.onAdd(task);
+        }
+    }
+
+    private void indexRemove(Task task) {
+        if (task instanceof RecurringTask rule) {
+            recurrences.remove(rule);
+        } else if (tasksByTime.remove(task)) {
+            overlapValidator.onRemove(tasksByTime, task);
+        }
+    }
+
+    private void indexRemoveAll(TaskType type) {
+        // A few tasks leave one by one. Otherwise the rest of the time index is taken in its order and
+        // the tree is built from it in O(n) by TreeSet.addAll(), instead of a rebalancing removal per task.
+        final boolean subtask = type == TaskType.SUBTASK;
+        final int removed = subtask ? subtasks.size() : tasks.size();
+        if (removed * 8L < tasksByTime.size()) {
+            (subtask ? subtasks.values() : tasks.values()).forEach(this::indexRemove);
+            return;
+        }
+        if (!subtask) {
+            recurrences.clear();
+        }
+        List<Task> kept = new ArrayList<>(Math.max(0, tasksByTime.size() - removed));
+        for (Task task : tasksByTime) {
+            if ((task instanceof Subtask) != subtask) {
+                kept.add(task);
+            }
+        }
+        tasksByTime.clear();
+        overlapValidator.onClear();
+        tasksByTime.addAll(new SortedListView<>(kept, BY_TIME));
+        kept.forEach(overlapValidator::onAdd);
+    }
+
+    private static List<Task> merge(Iterator<Task> stored, Iterator<Task> occurrences, int limit) {
+        // both iterators are ordered by time, the merged list takes at most 'limit' first periods
+        List<Task> merged = new ArrayList<>();
+        Task nextStored = stored.hasNext() ? stored.next() : null;
+        Task nextOccurrence = occurrences.hasNext() ? occurrences.next() : null;
+        while (merged.size() < limit && (nextStored != null || nextOccurrence != null)) {
+            if (nextOccurrence == null || (nextStored != null && BY_TIME.compare(nextStored, nextOccurrence) <= 0)) {
+                merged.add(nextStored);
+                nextStored = stored.hasNext() ? stored.next() : null;
+            } else {
+                merged.add(nextOccurrence);
+                nextOccurrence = occurrences.hasNext() ? occurrences.next() : null;
+            }
+        }
+        return merged;
+    }
+
+    private void tasksChanged() {
+        version++;
+        tasksSnapshot = null;
+        prioritizedSnapshot = null;
+    }
+
+    private void epicsChanged() {
+        version++;
+        epicsSnapshot = null;
+    }
+
+    private void subtasksChanged() {
+        version++;
+        subtasksSnapshot = null;
+        prioritizedSnapshot = null;
+    }
+
+    private Epic rebuildEpicState(Epic epic) {
+        // full O(k) recount, used only when the epic itself is stored or replaced
+        EpicState epicState = new EpicState();
+        epic.forEachSubtaskId(subtaskId -> {
+            Subtask subtask = subtasks.get(subtaskId);
+            if (subtask != null) {
+                epicState.add(subtask);
+            }
+        });
+        epicStates.put(epic.getId(), epicState);
+        return applyEpicState(epic, epicState);
+    }
+
+    private Epic applyEpicState(Epic epic, EpicState epicState) {
+        // Stored epics are sealed like tasks: a change swaps in a new copy, so lists, events and other
+        // threads that got the old one never see it change
+        Epic stored = epicState.applyTo(epic);
+        if (epics.get(stored.getId()) != stored) {
+            epics.put(stored.getId(), stored);
+            epicsSnapshot = null;
         }
-        epic.setDuration(totalDuration);
-        if (!subtaskStatusSet.isEmpty()) {  // some subtasks present
-            epic.setStartTime(minStart);
-            epic.setEndTime(maxEnd);
+        epicStateChanged(stored);
+        return stored;
+    }
+
+    private void epicStateChanged(Epic epic) {
+        dependencies.dropCriticalPath(epic.getId());  // subtasks of the epic changed
+        statusIndex.update(TaskType.EPIC, epic.getId(), epic.getStatus());
+    }
+
+    private class Batch {
+        // Board changes collected by applyBatch(): stored tasks are not touched until every mutation is checked
+        private int nextId = seqId;
+        private final IntObjectHashMap<Task> staged = new IntObjectHashMap<>();  // new versions of tasks and subtasks
+        private final IntLinkedSet stagedOrder = new IntLinkedSet();
+        private final IntObjectHashMap<Epic> stagedEpics = new IntObjectHashMap<>();
+        private final IntLinkedSet removed = new IntLinkedSet();  // stored tasks and subtasks deleted or replaced
+        private final IntLinkedSet deletedEpics = new IntLinkedSet();
+        private final boolean replaying;  // undo and redo put back the values the board already had
+
+        Batch() {
+            this(false);
+        }
+
+        Batch(boolean replaying) {
+            this.replaying = replaying;
+        }
+
+        int stage(Mutation mutation) {
+            final TaskType type = mutation.getType();
+            final Task task = mutation.getTask();
+            switch (mutation.getKind()) {
+                case ADD -> {
+                    final int id = ++nextId;
+                    put(type, id, task);
+                    return id;
+                }
+                case UPDATE -> {
+                    final int id = mutation.getId();
+                    if (!contains(type, id)) {
+                        throw new NoSuchElementException(type + " with ID=" + id + " not found. Cannot update " + task);
+                    }
+                    put(type, id, task);
+                    return id;
+                }
+                default -> {
+                    final int id = mutation.getId();
+                    if (contains(type, id)) {
+                        delete(type, id);
+                    }
+                    return id;
+                }
+            }
+        }
+
+        private boolean contains(TaskType type, int id) {
+            return switch (type) {
+                case EPIC -> stagedEpics.containsKey(id) || (epics.containsKey(id) && !deletedEpics.contains(id));
+                case SUBTASK -> staged.get(id) instanceof Subtask
+                        || (subtasks.containsKey(id) && !removed.contains(id));
+                case TASK -> (staged.containsKey(id) && !(staged.get(id) instanceof Subtask))
+                        || (tasks.containsKey(id) && !removed.contains(id));
+            };
+        }
+
+        private void put(TaskType type, int id, Task task) {
+            if (type == TaskType.EPIC) {
+                stagedEpics.put(id, task.isSealed() ? new Epic((Epic) task) : (Epic) task);
+                return;
+            }
+            if (type == TaskType.SUBTASK) {
+                final int epicId = ((Subtask) task).getEpicId();
+                if (!contains(TaskType.EPIC, epicId)) {
+                    throw new NoSuchElementException("Not found Epic with ID=" + epicId + " specified for " + task);
+                }
+            }
+            if (task instanceof RecurringTask && !replaying) {
+                throw new IllegalArgumentException("Recurring tasks are added and updated one by one: " + task);
+            }
+            if (tasks.containsKey(id) || subtasks.containsKey(id)) {
+                removed.add(id);
+            }
+            staged.put(id, task);
+            stagedOrder.add(id);
+        }
+
+        private void delete(TaskType type, int id) {
+            if (type != TaskType.EPIC) {
+                staged.remove(id);
+                stagedOrder.remove(id);
+                if (tasks.containsKey(id) || subtasks.containsKey(id)) {
+                    removed.add(id);
+                }
+                return;
+            }
+            stagedEpics.remove(id);
+            Epic epic = epics.get(id);
+            if (epic != null) {
+                deletedEpics.add(id);
+                epic.forEachSubtaskId(subtaskId -> {   // the ones not moved to another epic within the batch
+                    if (!staged.containsKey(subtaskId) && !removed.contains(subtaskId)) {
+                        removed.add(subtaskId);
+                    }
+                });
+            }
+            for (int subtaskId : stagedOrder.toArray()) {   // the ones added or moved to this epic within the batch
+                if (staged.get(subtaskId) instanceof Subtask subtask && subtask.getEpicId() == id) {
+                    delete(TaskType.SUBTASK, subtaskId);
+                }
+            }
+        }
+
+        private long nextVersion(Task replaced, Task staged) {
+            // versions never go back, also when undo puts back an older value
+            long version = replaced == null ? 0 : replaced.getVersion();
+            return 1 + (replaying ? Math.max(version, staged.getVersion()) : version);
+        }
+
+        void checkOverlaps() {
+            // Sort-and-sweep over the new periods finds conflicts inside the batch in O(m log m),
+            // then each period is checked once against the time index without the periods being replaced
+            List<Task> periods = new ArrayList<>(staged.values());
+            periods.sort(comparing(Task::getStartTime, nullsFirst(naturalOrder())));
+            Task widestBefore = null;  // the latest ending period among ones started earlier than the current one
+            Task widestSame = null;    // the same among ones started at the last seen start time
+            for (Task task : periods) {
+                Task conflicting = widestBefore != null && OverlapValidator.overlapped(widestBefore, task)
+                        ? widestBefore
+                        : widestSame != null && OverlapValidator.overlapped(widestSame, task) ? widestSame : null;
+                if (conflicting != null) {
+                    throw new TaskOverlapException(
+                            String.format("Task '%s' period conflicts with '%s' of the same batch, start=%s, end=%s",
+                                    task.getTitle(), conflicting.getTitle(), task.getStartTime(), task.getEndTime())
+                    );
+                }
+                if (widestSame != null && !widestSame.getStartTime().equals(task.getStartTime())) {
+                    if (widestBefore == null || widestSame.getEndTime().isAfter(widestBefore.getEndTime())) {
+                        widestBefore = widestSame;
+                    }
+                    widestSame = null;
+                }
+                if (widestSame == null || task.getEndTime().isAfter(widestSame.getEndTime())) {
+                    widestSame = task;
+                }
+            }
+
+            List<Task> leaving = new ArrayList<>(removed.size());
+            removed.forEach(id -> leaving.add(tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id)));
+            leaving.forEach(InMemoryTaskManager.this::indexRemove);
+            for (Task task : periods) {
+                if (hasOverlap(task)) {
+                    leaving.forEach(InMemoryTaskManager.this::indexAdd);
+                    throw new TaskOverlapException(
+                            String.format("Task '%s' period conflicts with existing tasks in batch, start=%s, end=%s",
+                                    task.getTitle(), task.getStartTime(), task.getEndTime())
+                    );
+                }
+            }
+        }
+
+        void apply() {
+            // nothing can fail here: old periods have already left the time index in checkOverlaps()
+            IntLinkedSet touchedEpics = new IntLinkedSet();
+            final boolean published = observed();
+            IntObjectHashMap<Task> previous = new IntObjectHashMap<>();  // replaced and deleted values for events
+            if (published) {
+                stagedEpics.forEachKey(id -> {
+                    if (epics.containsKey(id)) {
+                        previous.put(id, epics.get(id));
+                    }
+                });
+                deletedEpics.forEach(id -> previous.put(id, epics.get(id)));
+                removed.forEach(id -> previous.put(id, tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id)));
+            }
+            stagedEpics.forEachKey(id -> {
+                Epic epic = stagedEpics.get(id);
+                epic.setVersion(nextVersion(epics.get(id), epic));
+                epic.setId(id);
+                epics.put(id, epic);
+                searchIndex.index(epic);
+                touchedEpics.add(id);
+            });
+            deletedEpics.forEach(id -> {
+                epics.remove(id);
+                epicStates.remove(id);
+                statusIndex.remove(TaskType.EPIC, id);
+                searchIndex.remove(id);
+                history.remove(id);
+            });
+            removed.forEach(id -> {
+                Task replacement = staged.get(id);
+                if (tasks.containsKey(id)) {
+                    if (replacement == null) {
+                        statusIndex.remove(TaskType.TASK, tasks.remove(id));
+                        searchIndex.remove(id);
+                        dropDependencies(id);
+                        history.remove(id);
+                    }
+                    return;
+                }
+                Subtask subtask = subtasks.get(id);
+                if (replacement == null) {
+                    subtasks.remove(id);
+                    statusIndex.remove(TaskType.SUBTASK, subtask);
+                    searchIndex.remove(id);
+                    dropDependencies(id);
+                    history.remove(id);
+                }
+                if (replacement == null || ((Subtask) replacement).getEpicId() != subtask.getEpicId()) {
+                    Epic epic = editable(subtask.getEpicId());
+                    if (epic != null) {
+                        epic.removeSubtaskId(id);
+                        touchedEpics.add(epic.getId());
+                    }
+                }
+            });
+            stagedOrder.forEach(id -> {
+                Task replaced = tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id);
+                Task task = toStored(staged.get(id), id, nextVersion(replaced, staged.get(id)));
+                indexAdd(task);
+                searchIndex.index(task);
+                dependencies.update(task);
+                if (task instanceof Subtask subtask) {
+                    subtasks.put(id, subtask);
+                    statusIndex.update(TaskType.SUBTASK, replaced, subtask);
+                    editable(subtask.getEpicId()).addSubtaskId(id);
+                    touchedEpics.add(subtask.getEpicId());
+                } else {
+                    tasks.put(id, task);
+                    statusIndex.update(TaskType.TASK, replaced, task);
+                }
+            });
+            touchedEpics.forEach(id -> rebuildEpicState(epics.get(id)));  // once per epic for the whole batch, seals it
+            seqId = nextId;
+            tasksChanged();
+            epicsChanged();
+            subtasksChanged();
+            if (published) {
+                publishChanges(previous);
+            }
+        }
+
+        private Epic editable(int epicId) {
+            // an unsealed copy of the stored epic for the rest of apply(), sealed again by rebuildEpicState()
+            Epic epic = epics.get(epicId);
+            if (epic != null && epic.isSealed()) {
+                epic = new Epic(epic);
+                epics.put(epicId, epic);
+            }
+            return epic;
+        }
+
+        private void publishChanges(IntObjectHashMap<Task> previous) {
+            deletedEpics.forEach(id -> publish(TaskEvent.Kind.DELETED, TaskType.EPIC, id, previous.get(id), null));
+            stagedEpics.forEachKey(id -> publish(previous.containsKey(id) ? TaskEvent.Kind.UPDATED : TaskEvent.Kind.CREATED,
+                    TaskType.EPIC, id, previous.get(id), epics.get(id)));
+            removed.forEach(id -> {
+                if (!staged.containsKey(id)) {
+                    Task old = previous.get(id);
+                    publish(TaskEvent.Kind.DELETED, old instanceof Subtask ? TaskType.SUBTASK : TaskType.TASK,
+                            id, old, null);
+                }
+            });
+            stagedOrder.forEach(id -> {
+                Task task = tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id);
+                publish(previous.containsKey(id) ? TaskEvent.Kind.UPDATED : TaskEvent.Kind.CREATED,
+                        task instanceof Subtask ? TaskType.SUBTASK : TaskType.TASK, id, previous.get(id), task);
+            });
         }
     }
 
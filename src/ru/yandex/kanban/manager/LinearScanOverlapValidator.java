@@ -0,0 +1,15 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+
+import java.util.NavigableSet;
+
+class LinearScanOverlapValidator implements OverlapValidator {
+
+    // reference implementation: checks every stored period, O(n) per call
+
+    @Override
+    public boolean hasOverlap(NavigableSet<Task> tasksByTime, Task task) {
+        return tasksByTime.stream().anyMatch(t -> OverlapValidator.overlapped(t, task));
+    }
+}
@@ -4,6 +4,9 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import ru.yandex.kanban.http.DurationAdapter;
 import ru.yandex.kanban.http.LocalDateTimeAdapter;
+import ru.yandex.kanban.http.PersistentIntSetAdapter;
+import ru.yandex.kanban.http.PooledTextAdapterFactory;
+import ru.yandex.kanban.util.PersistentIntSet;
 
 import java.io.File;
 import java.time.Duration;
@@ -14,6 +17,7 @@ public final class Managers {
     private static TaskManager DEFAULT_MANAGER;
     private static FileBackedTaskManager DEFAULT_FILE_MANAGER;
     private static HistoryManager DEFAULT_HISTORY;
+    private static BoardRegistry DEFAULT_BOARDS;
 
     private Managers() {
         throw new RuntimeException("Utility class Managers cannot be implemented, call Managers.getDefault*() instead");
@@ -21,11 +25,16 @@ public final class Managers {
 
     public static TaskManager getDefault() {
         if (DEFAULT_MANAGER == null) {
-            DEFAULT_MANAGER = new InMemoryTaskManager();
+            DEFAULT_MANAGER = new ConcurrentTaskManager(new InMemoryTaskManager());
         }
         return DEFAULT_MANAGER;
     }
 
+    public static TaskManager getTimeGridManager(int slotMinutes) {
+        // for boards planned on fixed slots: overlaps are checked on per-day bitmaps of slotMinutes buckets
+        return new ConcurrentTaskManager(new InMemoryTaskManager(new TimeGridOverlapValidator(slotMinutes)));
+    }
+
     public static FileBackedTaskManager getDefaultFileMan(String fileName) {
         if (DEFAULT_FILE_MANAGER == null) {
             DEFAULT_FILE_MANAGER = new FileBackedTaskManager(new File(fileName));
@@ -40,10 +49,20 @@ public final class Managers {
         return DEFAULT_HISTORY;
     }
 
+    public static BoardRegistry getDefaultBoards() {
+        // boards of other teams next to the default one, see HttpTaskServer /boards/{name}/... paths
+        if (DEFAULT_BOARDS == null) {
+            DEFAULT_BOARDS = new BoardRegistry();
+        }
+        return DEFAULT_BOARDS;
+    }
+
     public static Gson getGson() {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter());
         gsonBuilder.registerTypeAdapter(Duration.class, new DurationAdapter());
+        gsonBuilder.registerTypeAdapter(PersistentIntSet.class, new PersistentIntSetAdapter());
+        gsonBuilder.registerTypeAdapterFactory(new PooledTextAdapterFactory());
         return gsonBuilder.create();
     }
 }
@@ -0,0 +1,70 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskType;
+
+public final class Mutation {
+    // One step of TaskManager.applyBatch(): Mutation.add(task), Mutation.update(task), Mutation.delete(type, id)
+
+    public enum Kind {
+        ADD,
+        UPDATE,
+        DELETE
+    }
+
+    private final Kind kind;
+    private final TaskType type;
+    private final Task task;
+    private final int id;
+
+    private Mutation(Kind kind, TaskType type, Task task, int id) {
+        this.kind = kind;
+        this.type = type;
+        this.task = task;
+        this.id = id;
+    }
+
+    public static Mutation add(Task task) {
+        return new Mutation(Kind.ADD, typeOf(task), task, 0);
+    }
+
+    public static Mutation update(Task task) {
+        return new Mutation(Kind.UPDATE, typeOf(task), task, task.getId());
+    }
+
+    public static Mutation delete(TaskType type, int id) {
+        return new Mutation(Kind.DELETE, type, null, id);
+    }
+
+    private static TaskType typeOf(Task task) {
+        if (task instanceof Epic) {
+            return TaskType.EPIC;
+        } else if (task instanceof Subtask) {
+            return TaskType.SUBTASK;
+        }
+        return TaskType.TASK;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "Mutation{" + kind + " " + type + (task != null ? " " + task : " #" + id) + '}';
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+
+public interface OverlapValidator {
+
+    // tasksByTime must not contain the task being checked (remove the old version before an update check)
+    boolean hasOverlap(NavigableSet<Task> tasksByTime, Task task);
+
+    // stateful validators keep their own index in sync, the manager calls these right after changing tasksByTime
+    default void onAdd(Task task) {
+    }
+
+    default void onRemove(NavigableSet<Task> tasksByTime, Task task) {
+    }
+
+    default void onClear() {
+    }
+
+    static boolean overlapped(Task task1, Task task2) {
+        // periods are half-open [start, end): touching periods and zero-length ones on a border do not overlap
+        LocalDateTime start1 = task1.getStartTime();
+        LocalDateTime start2 = task2.getStartTime();
+        if (start1 == null || start2 == null) {
+            return true;
+        }
+        LocalDateTime end1 = task1.getEndTime();
+        LocalDateTime end2 = task2.getEndTime();
+        return start1.isBefore(end2) && start2.isBefore(end1);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.yandex.kanban.manager;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+final class Partitions {
+    // Bulk board maintenance as fork/join tasks of the common pool: the list is halved until a part has
+    // at most PART_SIZE items. The action must touch nothing but its own item and what only that item owns;
+    // shorter lists run in the calling thread.
+
+    static final int PART_SIZE = 1024;
+
+    private Partitions() {
+    }
+
+    static <T> void replaceAll(List<T> items, UnaryOperator<T> operator) {
+        // every item is replaced by its result; the parts set distinct positions of the list only
+        if (items.size() <= PART_SIZE) {
+            items.replaceAll(operator);
+        } else {
+            new Part(0, items.size(), i -> items.set(i, operator.apply(items.get(i)))).invoke();
+        }
+    }
+
+    static <T> void forEach(List<T> items, Consumer<? super T> action) {
+        if (items.size() <= PART_SIZE) {
+            items.forEach(action);
+        } else {
+            new Part(0, items.size(), i -> action.accept(items.get(i))).invoke();
+        }
+    }
+
+    private static final class Part extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final transient IntConsumer action;  // by the item position; a part is never serialized
+
+        private Part(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PART_SIZE) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new Part(from, middle, action), new Part(middle, to, action));
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.RecurringTask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.util.IntObjectHashMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import static java.util.Comparator.comparing;
+import static ru.yandex.kanban.manager.TimeIndexOverlapValidator.probe;
+
+class RecurrenceIndex {
+    // Recurring tasks kept as rules instead of their occurrences.
+    // Occurrences of a rule never overlap each other (duration <= repeatEvery), so a period can only conflict
+    // with the first occurrence ending after its start: the check against a rule is O(1) arithmetic.
+
+    private final IntObjectHashMap<RecurringTask> rules = new IntObjectHashMap<>();
+
+    void add(RecurringTask rule) {
+        rules.put(rule.getId(), rule);
+    }
+
+    void remove(RecurringTask rule) {
+        rules.remove(rule.getId());
+    }
+
+    void clear() {
+        rules.clear();
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    void forEach(Consumer<RecurringTask> action) {
+        rules.values().forEach(action);
+    }
+
+    static void checkRule(RecurringTask rule) {
+        final Duration repeatEvery = rule.getRepeatEvery();
+        if (rule.getStartTime() == null || repeatEvery == null || !repeatEvery.isPositive()
+                || rule.getOccurrences() < 1 || rule.getDuration().compareTo(repeatEvery) > 0) {
+            throw new IllegalArgumentException("Recurring task needs start time, positive repeat interval"
+                    + " not shorter than duration and at least one occurrence: " + rule);
+        }
+    }
+
+    boolean hasOverlap(Task task) {
+        // the task is a single period: the rules are checked one by one
+        final LocalDateTime start = task.getStartTime();
+        for (RecurringTask rule : rules.values()) {
+            if (start == null || overlaps(rule, start, task.getEndTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasOverlap(NavigableSet<Task> tasksByTime, RecurringTask rule) {
+        // The rule against periods of the time index running within its series and against the other rules.
+        // The series may be replacing a stored version of itself, so the rule ID is skipped.
+        if (!tasksByTime.isEmpty() && tasksByTime.first().getStartTime() == null) {
+            return true;
+        }
+        final LocalDateTime first = rule.getStartTime();
+        final LocalDateTime last = rule.getLastEndTime();
+        Task before = tasksByTime.lower(probe(first, Integer.MIN_VALUE));
+        if (before != null) {
+            LocalDateTime start = before.getStartTime();
+            for (Task task : tasksByTime.subSet(probe(start, Integer.MIN_VALUE), true,
+                    probe(start, Integer.MAX_VALUE), true)) {
+                if (overlaps(rule, task.getStartTime(), task.getEndTime())) {
+                    return true;
+                }
+            }
+        }
+        for (Task task : tasksByTime.subSet(probe(first, Integer.MIN_VALUE), true, probe(last, Integer.MIN_VALUE), false)) {
+            if (overlaps(rule, task.getStartTime(), task.getEndTime())) {
+                return true;
+            }
+        }
+        for (RecurringTask other : rules.values()) {
+            if (other.getId() != rule.getId() && overlaps(rule, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    LocalDateTime skipOccurrences(LocalDateTime candidate, Duration duration) {
+        // moves the candidate slot past every occurrence it overlaps, the time index is checked by the caller
+        boolean moved = !rules.isEmpty();
+        while (moved) {
+            moved = false;
+            for (RecurringTask rule : rules.values()) {
+                final long index = firstEndingAfter(rule, candidate);
+                if (index < rule.getOccurrences()
+                        && overlapped(rule.getOccurrenceStart(index), rule.getDuration(), candidate, candidate.plus(duration))) {
+                    candidate = rule.getOccurrenceStart(index).plus(rule.getDuration());
+                    moved = true;
+                }
+            }
+        }
+        return candidate;
+    }
+
+    List<Task> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        // occurrences running at any moment of [from, to), by rule
+        List<Task> found = new ArrayList<>();
+        for (RecurringTask rule : rules.values()) {
+            long index = firstEndingAfter(rule, from);
+            if (index > 0 && rule.getOccurrenceStart(index - 1).equals(from)) {
+                index--;  // zero-length occurrence right at 'from'
+            }
+            for (; index < rule.getOccurrences() && rule.getOccurrenceStart(index).isBefore(to); index++) {
+                found.add(rule.getOccurrence(index));
+            }
+        }
+        return found;
+    }
+
+    Iterator<Task> occurrencesAfter(Task after) {
+        // occurrences of all rules ordered by start time and rule ID, starting after the given period (all if null)
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, rules.size()),
+                comparing((Cursor cursor) -> cursor.start).thenComparing(cursor -> cursor.rule.getId()));
+        for (RecurringTask rule : rules.values()) {
+            long index = 0;
+            if (after != null && after.getStartTime() != null) {
+                index = firstStartingFrom(rule, after.getStartTime());
+                if (index < rule.getOccurrences() && rule.getOccurrenceStart(index).equals(after.getStartTime())
+                        && rule.getId() <= after.getId()) {
+                    index++;
+                }
+            }
+            if (index < rule.getOccurrences()) {
+                cursors.add(new Cursor(rule, index));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+
+            @Override
+            public Task next() {
+                Cursor cursor = cursors.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                Task occurrence = cursor.rule.getOccurrence(cursor.index);
+                if (++cursor.index < cursor.rule.getOccurrences()) {
+                    cursor.start = cursor.rule.getOccurrenceStart(cursor.index);
+                    cursors.add(cursor);
+                }
+                return occurrence;
+            }
+        };
+    }
+
+    private static class Cursor {
+        private final RecurringTask rule;
+        private long index;
+        private LocalDateTime start;
+
+        Cursor(RecurringTask rule, long index) {
+            this.rule = rule;
+            this.index = index;
+            start = rule.getOccurrenceStart(index);
+        }
+    }
+
+    static boolean overlaps(RecurringTask rule, LocalDateTime start, LocalDateTime end) {
+        final long index = firstEndingAfter(rule, start);
+        return index < rule.getOccurrences() && overlapped(rule.getOccurrenceStart(index), rule.getDuration(), start, end);
+    }
+
+    private static boolean overlaps(RecurringTask rule, RecurringTask other) {
+        // occurrences of the shorter series within the span of the other one, each checked in O(1)
+        if (other.getOccurrences() < rule.getOccurrences()) {
+            RecurringTask swap = rule;
+            rule = other;
+            other = swap;
+        }
+        final LocalDateTime last = other.getLastEndTime();
+        for (long index = firstEndingAfter(rule, other.getStartTime()); index < rule.getOccurrences(); index++) {
+            LocalDateTime start = rule.getOccurrenceStart(index);
+            if (!start.isBefore(last)) {
+                break;
+            }
+            if (overlaps(other, start, start.plus(rule.getDuration()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlapped(LocalDateTime start, Duration duration, LocalDateTime otherStart,
+                                      LocalDateTime otherEnd) {
+        // half-open periods like OverlapValidator.overlapped()
+        return start.isBefore(otherEnd) && otherStart.isBefore(start.plus(duration));
+    }
+
+    private static long firstEndingAfter(RecurringTask rule, LocalDateTime time) {
+        // index of the first occurrence ending after the time, the occurrence count if there is none
+        Duration sinceFirstEnd = Duration.between(rule.getStartTime().plus(rule.getDuration()), time);
+        if (sinceFirstEnd.isNegative()) {
+            return 0;
+        }
+        return Math.min(rule.getOccurrences(), wholeTimes(sinceFirstEnd, rule.getRepeatEvery()) + 1);
+    }
+
+    private static long firstStartingFrom(RecurringTask rule, LocalDateTime time) {
+        Duration sinceFirstStart = Duration.between(rule.getStartTime(), time);
+        if (!sinceFirstStart.isPositive()) {
+            return 0;
+        }
+        long index = wholeTimes(sinceFirstStart, rule.getRepeatEvery());
+        if (rule.getOccurrenceStart(index).isBefore(time)) {
+            index++;
+        }
+        return Math.min(rule.getOccurrences(), index);
+    }
+
+    private static long wholeTimes(Duration span, Duration step) {
+        // Duration.dividedBy(Duration) goes through BigDecimal, long division is enough for spans below 292 years
+        if (span.getNano() == 0 && step.getNano() == 0) {
+            return span.getSeconds() / step.getSeconds();
+        }
+        try {
+            return span.toNanos() / step.toNanos();
+        } catch (ArithmeticException exception) {
+            return span.dividedBy(step);
+        }
+    }
+}
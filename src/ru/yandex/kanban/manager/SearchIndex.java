@@ -0,0 +1,153 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.util.IntLinkedSet;
+import ru.yandex.kanban.util.IntObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+import static java.util.Comparator.comparingInt;
+
+class SearchIndex {
+    // Inverted index over titles and descriptions: token --> IDs of the tasks having it.
+    // Tokens are kept sorted, so all tokens starting with a prefix are one subMap() range,
+    // which is what a prefix trie would give here without a node per character.
+
+    private final TreeMap<String, IntLinkedSet> postings = new TreeMap<>();
+    private final IntObjectHashMap<String[]> tokensById = new IntObjectHashMap<>();
+
+    void index(Task task) {
+        final int id = task.getId();
+        Set<String> text = tokenize(task.getTitle());
+        text.addAll(tokenize(task.getDescription()));
+        String[] tokens = text.toArray(new String[0]);
+        String[] indexed = tokensById.get(id);
+        if (indexed != null) {
+            if (Arrays.equals(indexed, tokens)) {
+                return;
+            }
+            remove(id);
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new IntLinkedSet()).add(id);
+        }
+        tokensById.put(id, tokens);
+    }
+
+    void remove(int id) {
+        String[] tokens = tokensById.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            IntLinkedSet ids = postings.get(token);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    void removeAll(IntPredicate removed) {
+        // bulk delete of a task type: every postings list is filtered once, the lists in parallel parts
+        if (tokensById.removeIf(removed) == 0) {
+            return;
+        }
+        List<IntLinkedSet> lists = new ArrayList<>(postings.values());
+        Partitions.forEach(lists, ids -> ids.removeIf(removed));
+        postings.values().removeIf(IntLinkedSet::isEmpty);
+    }
+
+    IntLinkedSet search(String query, int limit) {
+        // All tokens of the query must be found, the last one is a prefix of a word still being typed.
+        // Candidates come from the rarest whole token or from the prefix range, whichever is shorter.
+        IntLinkedSet found = new IntLinkedSet();
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return found;
+        }
+        final String prefix = terms.removeLast();
+        List<IntLinkedSet> words = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            IntLinkedSet ids = postings.get(term);
+            if (ids == null) {
+                return found;
+            }
+            words.add(ids);
+        }
+        words.sort(comparingInt(IntLinkedSet::size));
+        Collection<IntLinkedSet> prefixed = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        long prefixedSize = 0;
+        for (IntLinkedSet ids : prefixed) {
+            prefixedSize += ids.size();
+        }
+
+        if (!words.isEmpty() && (long) words.getFirst().size() * prefixed.size() < prefixedSize) {
+            for (int id : words.getFirst().asList()) {
+                if (containsAll(words, id) && containsAny(prefixed, id)) {
+                    found.add(id);
+                    if (found.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return found;
+        }
+        for (IntLinkedSet ids : prefixed) {
+            for (int id : ids.asList()) {
+                if (containsAll(words, id)) {
+                    found.add(id);
+                    if (found.size() == limit) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean containsAll(List<IntLinkedSet> sets, int id) {
+        for (IntLinkedSet ids : sets) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAny(Collection<IntLinkedSet> sets, int id) {
+        for (IntLinkedSet ids : sets) {
+            if (ids.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Set<String> tokenize(String text) {
+        // lower-cased runs of letters and digits, in any alphabet
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
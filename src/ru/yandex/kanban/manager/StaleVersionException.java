@@ -0,0 +1,9 @@
+package ru.yandex.kanban.manager;
+
+public class StaleVersionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StaleVersionException(String message) {
+        super(message);
+    }
+}
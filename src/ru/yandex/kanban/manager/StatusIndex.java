@@ -0,0 +1,69 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+import ru.yandex.kanban.util.IntLinkedSet;
+
+import java.util.EnumMap;
+
+class StatusIndex {
+    // task type --> task status --> IDs of the tasks having them, and the planned minutes of every type
+
+    private final EnumMap<TaskType, EnumMap<TaskStatus, IntLinkedSet>> index = new EnumMap<>(TaskType.class);
+    private final long[] plannedMinutes = new long[TaskType.values().length];
+
+    StatusIndex() {
+        for (TaskType type : TaskType.values()) {
+            EnumMap<TaskStatus, IntLinkedSet> byStatus = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new IntLinkedSet());
+            }
+            index.put(type, byStatus);
+        }
+    }
+
+    void update(TaskType type, int id, TaskStatus status) {
+        // the previous status is not needed: removal from every status set is O(1) each
+        for (IntLinkedSet ids : index.get(type).values()) {
+            ids.remove(id);
+        }
+        index.get(type).get(status).add(id);
+    }
+
+    void update(TaskType type, Task previous, Task task) {
+        // previous is the replaced value or null for a new one
+        update(type, task.getId(), task.getStatus());
+        plannedMinutes[type.ordinal()] += minutes(task) - minutes(previous);
+    }
+
+    void remove(TaskType type, Task task) {
+        remove(type, task.getId());
+        plannedMinutes[type.ordinal()] -= minutes(task);
+    }
+
+    void remove(TaskType type, int id) {
+        for (IntLinkedSet ids : index.get(type).values()) {
+            ids.remove(id);
+        }
+    }
+
+    void clear(TaskType type) {
+        for (IntLinkedSet ids : index.get(type).values()) {
+            ids.clear();
+        }
+        plannedMinutes[type.ordinal()] = 0;
+    }
+
+    IntLinkedSet get(TaskType type, TaskStatus status) {
+        return index.get(type).get(status);
+    }
+
+    long getPlannedMinutes(TaskType type) {
+        return plannedMinutes[type.ordinal()];
+    }
+
+    private static long minutes(Task task) {
+        return task == null || task.getDuration() == null ? 0 : task.getDuration().toMinutes();
+    }
+}
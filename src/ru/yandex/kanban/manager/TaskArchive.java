@@ -0,0 +1,307 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+import ru.yandex.kanban.util.IntIntHashMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+class TaskArchive {
+    // Cold tier of finished tasks and subtasks: records in an append-only segment file, the heap keeps only
+    // the ID --> record index and the record offsets, about 30 bytes a task. Every append() writes one run
+    // of records ordered by start time, so a range query binary-searches the runs on disk and reads
+    // the records of the range only. A restored or deleted record stays in the file, the index forgets it.
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final int START_SIZE = 12;    // start second and nano right after the record size
+    private static final int NO_TEXT = -1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final IntIntHashMap recordsById = new IntIntHashMap();
+    private long[] offsets = new long[16];       // by record number
+    private int records;
+    private long fileSize;
+    private final List<Run> runs = new ArrayList<>();
+    private final int[] counts = new int[TaskType.values().length];
+    private final long[] plannedMinutes = new long[TaskType.values().length];
+
+    // records [first, end) ordered by start, maxDuration bounds how long before 'from' a running one started
+    private record Run(int first, int end, LocalDateTime maxEnd, Duration maxDuration) {
+    }
+
+    TaskArchive(Path file) {
+        this.file = file;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Archive file " + file + " cannot be opened: " + exception.getMessage(),
+                    exception);
+        }
+    }
+
+    int size() {
+        return recordsById.size();
+    }
+
+    boolean contains(int id) {
+        return recordsById.containsKey(id);
+    }
+
+    int getCount(TaskType type) {
+        return counts[type.ordinal()];
+    }
+
+    long getPlannedMinutes(TaskType type) {
+        return plannedMinutes[type.ordinal()];
+    }
+
+    void append(List<Task> sorted) {
+        // the tasks are ordered by start time; all of them are written before any of them is indexed
+        if (sorted.isEmpty()) {
+            return;
+        }
+        final int first = records;
+        final long runStart = fileSize;
+        List<ByteBuffer> buffers = new ArrayList<>(sorted.size());
+        long[] runOffsets = new long[sorted.size()];
+        long position = runStart;
+        LocalDateTime maxEnd = null;
+        Duration maxDuration = Duration.ZERO;
+        for (int i = 0; i < sorted.size(); i++) {
+            Task task = sorted.get(i);
+            ByteBuffer buffer = encode(task);
+            runOffsets[i] = position;
+            position += buffer.remaining();
+            buffers.add(buffer);
+            if (maxEnd == null || task.getEndTime().isAfter(maxEnd)) {
+                maxEnd = task.getEndTime();
+            }
+            if (task.getDuration().compareTo(maxDuration) > 0) {
+                maxDuration = task.getDuration();
+            }
+        }
+        try {
+            channel.position(runStart);
+            ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+            while (array[array.length - 1].hasRemaining()) {
+                channel.write(array);
+            }
+            channel.force(false);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Archive file " + file + " writing error: " + exception.getMessage(),
+                    exception);
+        }
+        fileSize = position;
+        if (records + sorted.size() > offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, records + sorted.size()));
+        }
+        System.arraycopy(runOffsets, 0, offsets, records, sorted.size());
+        for (Task task : sorted) {
+            recordsById.put(task.getId(), records++);
+            count(task, 1);
+        }
+        runs.add(new Run(first, records, maxEnd, maxDuration));
+    }
+
+    Task get(int id) {
+        final int record = recordsById.get(id);
+        return record < 0 ? null : read(record);
+    }
+
+    Task remove(int id) {
+        final int record = recordsById.remove(id);
+        if (record < 0) {
+            return null;
+        }
+        Task task = read(record);
+        count(task, -1);
+        return task;
+    }
+
+    List<Task> removeAll(TaskType type) {
+        // run by run, so the file is read sequentially
+        List<Task> removed = new ArrayList<>();
+        for (Run run : runs) {
+            for (int record = run.first; record < run.end && counts[type.ordinal()] > 0; record++) {
+                Task task = readLive(record);
+                if (task != null && typeOf(task) == type) {
+                    recordsById.remove(task.getId());
+                    count(task, -1);
+                    removed.add(task);
+                }
+            }
+        }
+        return removed;
+    }
+
+    void forEachBetween(LocalDateTime from, LocalDateTime to, Consumer<Task> action) {
+        // records running at any moment of [from, to), in no particular order across runs
+        anyBetween(from, to, task -> {
+            action.accept(task);
+            return false;
+        });
+    }
+
+    boolean anyBetween(LocalDateTime from, LocalDateTime to, Predicate<Task> condition) {
+        // the same records as forEachBetween(), stops at the first one meeting the condition
+        for (Run run : runs) {
+            if (!run.maxEnd.isAfter(from)) {
+                continue;
+            }
+            for (int record = firstStartingFrom(run, from.minus(run.maxDuration)); record < run.end; record++) {
+                if (!startOf(record).isBefore(to)) {
+                    break;
+                }
+                Task task = readLive(record);
+                if (task != null && task.getEndTime().isAfter(from) && condition.test(task)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            System.out.println("Archive file " + file + " closing error: " + exception);
+        }
+    }
+
+    private int firstStartingFrom(Run run, LocalDateTime time) {
+        int low = run.first;
+        int high = run.end;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (startOf(middle).isBefore(time)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void count(Task task, int sign) {
+        final int type = typeOf(task).ordinal();
+        counts[type] += sign;
+        plannedMinutes[type] += sign * task.getDuration().toMinutes();
+    }
+
+    private static TaskType typeOf(Task task) {
+        return task instanceof Subtask ? TaskType.SUBTASK : TaskType.TASK;
+    }
+
+    private LocalDateTime startOf(int record) {
+        ByteBuffer buffer = readAt(offsets[record] + 4, START_SIZE);
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private Task readLive(int record) {
+        // null for a record whose task has left the archive
+        Task task = read(record);
+        return recordsById.get(task.getId()) == record ? task : null;
+    }
+
+    private Task read(int record) {
+        final int size = readAt(offsets[record], 4).getInt();
+        return decode(readAt(offsets[record] + 4, size));
+    }
+
+    private ByteBuffer readAt(long position, int size) {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new ManagerSaveException("Archive file " + file + " is truncated at " + position);
+                }
+            }
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Archive file " + file + " reading error: " + exception.getMessage(),
+                    exception);
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer encode(Task task) {
+        // size, start second and nano, id, type, status, version, duration, epic ID, title, description
+        byte[] title = bytes(task.getTitle());
+        byte[] description = bytes(task.getDescription());
+        final int size = START_SIZE + 4 + 1 + 1 + 8 + 12 + 4 + textSize(title) + textSize(description);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + size).putInt(size);
+        buffer.putLong(task.getStartTime().toEpochSecond(ZoneOffset.UTC)).putInt(task.getStartTime().getNano());
+        buffer.putInt(task.getId());
+        buffer.put((byte) typeOf(task).ordinal());
+        buffer.put((byte) task.getStatus().ordinal());
+        buffer.putLong(task.getVersion());
+        buffer.putLong(task.getDuration().getSeconds()).putInt(task.getDuration().getNano());
+        buffer.putInt(task instanceof Subtask subtask ? subtask.getEpicId() : 0);
+        putText(buffer, title);
+        putText(buffer, description);
+        return buffer.flip();
+    }
+
+    private static Task decode(ByteBuffer buffer) {
+        LocalDateTime start = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        final int id = buffer.getInt();
+        final boolean subtask = buffer.get() == TaskType.SUBTASK.ordinal();
+        TaskStatus status = STATUSES[buffer.get()];
+        final long version = buffer.getLong();
+        Duration duration = Duration.ofSeconds(buffer.getLong(), buffer.getInt());
+        final int epicId = buffer.getInt();
+        String title = getText(buffer);
+        String description = getText(buffer);
+        Task task = subtask ? new Subtask(title, description, epicId) : new Task(title, description);
+        task.setId(id);
+        task.setStatus(status);
+        task.setStartTime(start);
+        task.setDuration(duration);
+        task.setVersion(version);
+        return task.seal();
+    }
+
+    private static byte[] bytes(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int textSize(byte[] text) {
+        return 4 + (text == null ? 0 : text.length);
+    }
+
+    private static void putText(ByteBuffer buffer, byte[] text) {
+        if (text == null) {
+            buffer.putInt(NO_TEXT);
+        } else {
+            buffer.putInt(text.length).put(text);
+        }
+    }
+
+    private static String getText(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NO_TEXT) {
+            return null;
+        }
+        String text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return text;
+    }
+}
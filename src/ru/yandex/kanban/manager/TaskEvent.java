@@ -0,0 +1,65 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskType;
+
+public final class TaskEvent {
+    // A slot of the event ring buffer: the same instance is refilled for later changes,
+    // so a listener has to copy the values it keeps after onEvent() returns
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        DELETED,
+        STARTED,  // the start time of the new value has come, see TaskManager.advanceTime()
+        ENDED
+    }
+
+    private Kind kind;
+    private TaskType type;
+    private int id;
+    private Task oldValue;
+    private Task newValue;
+    private long version;
+
+    TaskEvent() {
+    }
+
+    void set(Kind kind, TaskType type, int id, Task oldValue, Task newValue, long version) {
+        this.kind = kind;
+        this.type = type;
+        this.id = id;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.version = version;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Task getOldValue() {
+        return oldValue;  // null for CREATED, STARTED and ENDED
+    }
+
+    public Task getNewValue() {
+        return newValue;  // null for DELETED, the occurrence of a recurring task for STARTED and ENDED
+    }
+
+    public long getVersion() {
+        return version;   // board version right after the change
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" + kind + " " + type + " #" + id + ", version=" + version + '}';
+    }
+}
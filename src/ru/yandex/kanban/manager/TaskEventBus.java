@@ -0,0 +1,146 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+class TaskEventBus {
+    // Single-producer ring buffer of preallocated events. The manager fills the next slot and moves the cursor,
+    // every listener follows the cursor on its own daemon thread and takes all available events as a batch.
+    // The producer waits only when the slowest listener is a whole ring behind.
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TaskEvent[] ring;
+    private final int mask;
+    private volatile long cursor = -1;  // sequence of the last published event
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    TaskEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    TaskEventBus(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two, got " + capacity);
+        }
+        ring = new TaskEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new TaskEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    void subscribe(TaskListener listener) {
+        Subscriber subscriber = new Subscriber(listener, cursor);  // only events published from now on
+        subscribers.add(subscriber);
+        subscriber.thread.start();
+    }
+
+    void unsubscribe(TaskListener listener) {
+        // the listener thread finishes its current event and is joined
+        List<Subscriber> removed = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.listener == listener) {
+                removed.add(subscriber);
+            }
+        }
+        stop(removed);
+    }
+
+    void close() {
+        stop(new ArrayList<>(subscribers));
+    }
+
+    private void stop(List<Subscriber> stopped) {
+        subscribers.removeAll(stopped);
+        for (Subscriber subscriber : stopped) {
+            subscriber.running = false;
+            LockSupport.unpark(subscriber.thread);
+        }
+        for (Subscriber subscriber : stopped) {
+            if (subscriber.thread == Thread.currentThread()) {
+                continue;  // a listener removing itself stops after the current event
+            }
+            try {
+                subscriber.thread.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void publish(TaskEvent.Kind kind, TaskType type, int id, Task oldValue, Task newValue, long version) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        final long next = cursor + 1;
+        while (next - minSequence() > mask) {  // the slot is still read by the slowest subscriber
+            LockSupport.parkNanos(PARK_NANOS / 100);
+        }
+        ring[(int) next & mask].set(kind, type, id, oldValue, newValue, version);
+        cursor = next;  // volatile write makes the filled slot visible to the subscribers
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.waiting) {
+                LockSupport.unpark(subscriber.thread);
+            }
+        }
+    }
+
+    private long minSequence() {
+        long min = cursor;
+        for (Subscriber subscriber : subscribers) {
+            min = Math.min(min, subscriber.sequence);
+        }
+        return min;
+    }
+
+    private class Subscriber implements Runnable {
+        private final TaskListener listener;
+        private final Thread thread;
+        private volatile long sequence;  // the last event handled
+        private volatile boolean waiting;
+        private volatile boolean running = true;
+
+        Subscriber(TaskListener listener, long sequence) {
+            this.listener = listener;
+            this.sequence = sequence;
+            thread = new Thread(this, "task-events-" + listener.getClass().getSimpleName());
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                final long available = cursor;
+                if (available == sequence) {
+                    waiting = true;
+                    if (cursor == available) {  // re-checked after the flag, the timeout covers a missed unpark
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                    waiting = false;
+                    continue;
+                }
+                for (long next = sequence + 1; next <= available && running; next++) {
+                    try {
+                        listener.onEvent(ring[(int) next & mask], next == available);
+                    } catch (RuntimeException exception) {
+                        System.out.println("Listener " + listener + " failed on event #" + next + ": " + exception);
+                    }
+                }
+                sequence = available;
+            }
+        }
+    }
+}
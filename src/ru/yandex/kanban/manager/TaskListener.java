@@ -0,0 +1,8 @@
+package ru.yandex.kanban.manager;
+
+public interface TaskListener {
+
+    // Called on the listener's own thread in the order of changes. endOfBatch is true for the last event
+    // available at the moment, so a slow listener (a disk writer, for example) can flush once per batch.
+    void onEvent(TaskEvent event, boolean endOfBatch);
+}
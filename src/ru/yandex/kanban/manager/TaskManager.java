@@ -4,6 +4,8 @@ import ru.yandex.kanban.tasks.Task;
 import ru.yandex.kanban.tasks.Epic;
 import ru.yandex.kanban.tasks.Subtask;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskManager {
@@ -24,17 +26,33 @@ public interface TaskManager {
 
     Subtask getSubtaskById(int id);
 
+    // peek*() do not record the view in history, unlike get*ById()
+    Task peekTask(int id);
+
+    Epic peekEpic(int id);
+
+    Subtask peekSubtask(int id);
+
     int addNewTask(Task task);
 
     int addNewEpic(Epic epic);
 
     int addNewSubtask(Subtask subtask);
 
-    void updateTask(Task task);
+    // Updates return the version stored by the update itself, the current one if nothing has changed
+    long updateTask(Task task);
+
+    long updateEpic(Epic epic);
 
-    void updateEpic(Epic epic);
+    long updateSubtask(Subtask subtask);
 
-    void updateSubtask(Subtask subtask);
+    // Compare-and-set variants: the update is applied only if the stored version is still the expected one,
+    // otherwise StaleVersionException is thrown and the caller may re-read and retry
+    long updateTask(Task task, long expectedVersion);
+
+    long updateEpic(Epic epic, long expectedVersion);
+
+    long updateSubtask(Subtask subtask, long expectedVersion);
 
     void deleteTask(int id);
 
@@ -49,4 +67,69 @@ public interface TaskManager {
     void deleteAllSubtasks();
 
     List<Task> getPrioritizedTasks();
+
+    List<Task> getPrioritizedBetween(LocalDateTime from, LocalDateTime to);
+
+    List<Task> getPrioritizedPage(Task after, int limit);
+
+    LocalDateTime findFreeSlot(Duration duration, LocalDateTime earliestStart);
+
+    int scheduleNewTask(Task task);
+
+    int scheduleNewSubtask(Subtask subtask);
+
+    int[] applyBatch(List<Mutation> mutations);
+
+    // tasks, epics and subtasks having all words of the query in the title or description, the last word as a prefix
+    List<Task> search(String query, int limit);
+
+    // successor cannot start before predecessor finishes; both are tasks or subtasks
+    void addDependency(int predecessorId, int successorId);
+
+    void removeDependency(int predecessorId, int successorId);
+
+    List<Task> getPredecessors(int id);
+
+    LocalDateTime getEarliestStart(int id);
+
+    // chain of dependent tasks ending with the latest finishing subtask of the epic
+    List<Task> getCriticalPath(int epicId);
+
+    // Every change of tasks, epics, subtasks and dependencies is one undo step, e.g. deleteAllEpics() with all
+    // the subtasks and their dependency edges.
+    // Both return the number of steps actually undone or redone; a new change drops the undone steps.
+    int undo(int steps);
+
+    int redo(int steps);
+
+    // estimated memory for the undo journal, the oldest steps are dropped beyond it; 0 turns the journal off
+    void setUndoBudget(long bytes);
+
+    // Moves the clock of task timers to now: listeners get STARTED and ENDED events of the tasks and subtasks
+    // whose start or end time has passed since the previous call, occurrences of recurring tasks included.
+    // The first call starts the clock, an earlier time than the current one is ignored. Returns the events fired.
+    int advanceTime(LocalDateTime now);
+
+    // Moves DONE tasks and subtasks ended before the time from the heap to an archive file, returns their number.
+    // Archived ones are still read by get...ById(), getEpicSubtasks() and getPrioritizedBetween() and counted
+    // by getStats(), a change brings one back; lists, search and find() see the heap tier only.
+    // Throws UnsupportedOperationException if canArchive() is false.
+    int archiveDone(LocalDateTime endedBefore);
+
+    boolean canArchive();
+
+    // releases the archive file, the manager is not used after that
+    void close();
+
+    // listeners get change events on their own threads, see TaskListener
+    void addListener(TaskListener listener);
+
+    void removeListener(TaskListener listener);
+
+    List<Task> find(TaskQuery query);
+
+    long getBoardVersion();
+
+    // per-status counts, planned minutes and epic progress, kept up to date by every change
+    BoardStats getStats();
 }
@@ -0,0 +1,44 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+
+public class TaskQuery {
+    // Conditions left null match anything. Example: new TaskQuery().inEpic(epicId).withStatus(TaskStatus.DONE)
+
+    private TaskType type;
+    private TaskStatus status;
+    private Integer epicId;
+
+    public TaskQuery ofType(TaskType type) {
+        this.type = type;
+        return this;
+    }
+
+    public TaskQuery withStatus(TaskStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public TaskQuery inEpic(int epicId) {
+        this.epicId = epicId;
+        return this;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public Integer getEpicId() {
+        return epicId;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQuery{type=" + type + ", status=" + status + ", epicId=" + epicId + '}';
+    }
+}
@@ -0,0 +1,112 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.RecurringTask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.util.TimingWheel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.IntFunction;
+
+class TaskTimers {
+    // Start and end timers of stored tasks and subtasks on a TimingWheel of seconds: the start of task #id
+    // is keyed by 2 * id, its end by 2 * id + 1. A recurring task has the timers of its next occurrence only,
+    // the following ones are scheduled as they fire. Times are local; a timer fires at the first whole second
+    // not before it.
+
+    private static final long ORIGIN = 1L << 56;  // LocalDateTime.MIN is less than 2^55 seconds before the epoch
+
+    interface Fired {
+        void fired(TaskEvent.Kind kind, Task task);
+    }
+
+    private final TimingWheel wheel;
+
+    TaskTimers(LocalDateTime now) {
+        wheel = new TimingWheel(floorTick(now));
+    }
+
+    int size() {
+        return wheel.size();
+    }
+
+    void schedule(Task task) {
+        // replaces the timers of the task, the ones already passed are not set
+        final int id = task.getId();
+        if (task.getStartTime() == null) {
+            cancel(id);
+        } else if (task instanceof RecurringTask rule) {
+            scheduleOccurrence(rule, false, wheel.now());
+            scheduleOccurrence(rule, true, wheel.now());
+        } else {
+            wheel.schedule(key(id, false), tick(task.getStartTime()));
+            wheel.schedule(key(id, true), tick(task.getEndTime()));
+        }
+    }
+
+    void cancel(int id) {
+        wheel.cancel(key(id, false));
+        wheel.cancel(key(id, true));
+    }
+
+    int advance(LocalDateTime now, IntFunction<Task> stored, Fired fired) {
+        // a clock going back is ignored: the timers of the passed seconds have already fired
+        final long to = floorTick(now);
+        if (to <= wheel.now()) {
+            return 0;
+        }
+        return wheel.advance(to, (key, deadline) -> {
+            final boolean end = (key & 1) != 0;
+            final Task task = stored.apply(key >>> 1);
+            final TaskEvent.Kind kind = end ? TaskEvent.Kind.ENDED : TaskEvent.Kind.STARTED;
+            if (task instanceof RecurringTask rule) {
+                final long index = occurrenceAfter(rule, end, deadline - 1);
+                scheduleOccurrence(rule, end, deadline);
+                fired.fired(kind, rule.getOccurrence(index));
+            } else {
+                fired.fired(kind, task);
+            }
+        });
+    }
+
+    private void scheduleOccurrence(RecurringTask rule, boolean end, long afterTick) {
+        final int key = key(rule.getId(), end);
+        final long index = occurrenceAfter(rule, end, afterTick);
+        if (index < 0) {
+            wheel.cancel(key);
+        } else {
+            wheel.schedule(key, boundaryTick(rule, end, index));
+        }
+    }
+
+    private static int key(int id, boolean end) {
+        return id << 1 | (end ? 1 : 0);  // IDs are positive, so no two keys are equal
+    }
+
+    private static long occurrenceAfter(RecurringTask rule, boolean end, long afterTick) {
+        // the first occurrence starting (or ending) after the tick, -1 if the series is over
+        final long first = boundaryTick(rule, end, 0);
+        long index = first > afterTick ? 0 : (afterTick - first) / Math.max(1, rule.getRepeatEvery().getSeconds());
+        index = Math.min(index, rule.getOccurrences());
+        while (index > 0 && boundaryTick(rule, end, index - 1) > afterTick) {
+            index--;
+        }
+        while (index < rule.getOccurrences() && boundaryTick(rule, end, index) <= afterTick) {
+            index++;
+        }
+        return index < rule.getOccurrences() ? index : -1;
+    }
+
+    private static long boundaryTick(RecurringTask rule, boolean end, long index) {
+        final LocalDateTime start = rule.getOccurrenceStart(index);
+        return tick(end ? start.plus(rule.getDuration()) : start);
+    }
+
+    private static long tick(LocalDateTime time) {
+        return floorTick(time) + (time.getNano() > 0 ? 1 : 0);
+    }
+
+    private static long floorTick(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) + ORIGIN;
+    }
+}
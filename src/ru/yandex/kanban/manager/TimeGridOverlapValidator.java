@@ -0,0 +1,191 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.util.IntObjectHashMap;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+
+import static ru.yandex.kanban.manager.TimeIndexOverlapValidator.probe;
+
+class TimeGridOverlapValidator implements OverlapValidator {
+
+    // Occupancy grid for boards planned on fixed slots: the day is split into buckets of slotMinutes,
+    // every bucket touched by a stored period is a bit of the day bitmap (long[] per epoch day).
+    // A free bucket range means no overlap for sure. A busy one is the exact answer while the task and all
+    // stored periods lie on bucket borders; otherwise the time index check decides.
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int wordsPerDay;
+    private final IntObjectHashMap<long[]> days = new IntObjectHashMap<>();
+    private final TimeIndexOverlapValidator exact = new TimeIndexOverlapValidator();
+    private int unaligned;  // stored periods not lying on bucket borders, zero-length ones included
+    private int undated;
+
+    TimeGridOverlapValidator(int slotMinutes) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot of " + slotMinutes + " minutes does not divide a day");
+        }
+        this.slotMinutes = slotMinutes;
+        slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        wordsPerDay = (slotsPerDay + 63) >>> 6;
+    }
+
+    @Override
+    public boolean hasOverlap(NavigableSet<Task> tasksByTime, Task task) {
+        if (task.getStartTime() == null || undated > 0) {
+            return !tasksByTime.isEmpty();  // task without start time conflicts with any other one
+        }
+        if (!isAnyBusy(firstBucket(task), lastBucket(task))) {
+            return false;
+        }
+        if (unaligned == 0 && isAligned(task)) {
+            return true;
+        }
+        return exact.hasOverlap(tasksByTime, task);
+    }
+
+    @Override
+    public void onAdd(Task task) {
+        if (task.getStartTime() == null) {
+            undated++;
+            return;
+        }
+        if (!isAligned(task)) {
+            unaligned++;
+        }
+        mark(firstBucket(task), lastBucket(task), true);
+    }
+
+    @Override
+    public void onRemove(NavigableSet<Task> tasksByTime, Task task) {
+        if (task.getStartTime() == null) {
+            undated--;
+            return;
+        }
+        if (!isAligned(task)) {
+            unaligned--;
+        }
+        final long first = firstBucket(task);
+        final long last = lastBucket(task);
+        mark(first, last, false);
+        // only border buckets may be shared with other periods
+        if (isBusy(tasksByTime, first)) {
+            mark(first, first, true);
+        }
+        if (last != first && isBusy(tasksByTime, last)) {
+            mark(last, last, true);
+        }
+    }
+
+    @Override
+    public void onClear() {
+        days.clear();
+        unaligned = 0;
+        undated = 0;
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * slotsPerDay
+                + (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    private long firstBucket(Task task) {
+        return bucketOf(task.getStartTime());
+    }
+
+    private long lastBucket(Task task) {
+        // the end is excluded; a zero-length period marks the bucket of its moment
+        if (task.getDuration().isZero()) {
+            return firstBucket(task);
+        }
+        return bucketOf(task.getEndTime().minusNanos(1));
+    }
+
+    private boolean isAligned(Task task) {
+        return !task.getDuration().isZero() && isBorder(task.getStartTime()) && isBorder(task.getEndTime());
+    }
+
+    private boolean isBorder(LocalDateTime time) {
+        return time.getNano() == 0 && time.getSecond() == 0
+                && (time.getHour() * 60 + time.getMinute()) % slotMinutes == 0;
+    }
+
+    private boolean isBusy(NavigableSet<Task> tasksByTime, long bucket) {
+        // exact check of a single bucket against the time index, used to restore shared border buckets
+        LocalDateTime from = LocalDate.ofEpochDay(Math.floorDiv(bucket, slotsPerDay)).atStartOfDay()
+                .plusMinutes((long) Math.floorMod(bucket, slotsPerDay) * slotMinutes);
+        LocalDateTime to = from.plusMinutes(slotMinutes);
+        if (!tasksByTime.subSet(probe(from, Integer.MIN_VALUE), true, probe(to, Integer.MIN_VALUE), false).isEmpty()) {
+            return true;
+        }
+        Task before = tasksByTime.lower(probe(from, Integer.MIN_VALUE));
+        if (before == null || before.getStartTime() == null) {
+            return false;
+        }
+        LocalDateTime start = before.getStartTime();
+        for (Task t : tasksByTime.subSet(probe(start, Integer.MIN_VALUE), true, probe(start, Integer.MAX_VALUE), true)) {
+            if (t.getEndTime().isAfter(from)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAnyBusy(long first, long last) {
+        for (long day = Math.floorDiv(first, slotsPerDay); day <= Math.floorDiv(last, slotsPerDay); day++) {
+            long[] words = days.get((int) day);
+            if (words == null) {
+                continue;
+            }
+            final long dayStart = day * slotsPerDay;
+            final int from = (int) Math.max(first - dayStart, 0);
+            final int to = (int) Math.min(last - dayStart, slotsPerDay - 1);
+            for (int word = from >>> 6; word <= to >>> 6; word++) {
+                if ((words[word] & mask(word, from, to)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void mark(long first, long last, boolean busy) {
+        for (long day = Math.floorDiv(first, slotsPerDay); day <= Math.floorDiv(last, slotsPerDay); day++) {
+            long[] words = days.get((int) day);
+            if (words == null) {
+                if (!busy) {
+                    continue;
+                }
+                words = new long[wordsPerDay];
+                days.put((int) day, words);
+            }
+            final long dayStart = day * slotsPerDay;
+            final int from = (int) Math.max(first - dayStart, 0);
+            final int to = (int) Math.min(last - dayStart, slotsPerDay - 1);
+            for (int word = from >>> 6; word <= to >>> 6; word++) {
+                if (busy) {
+                    words[word] |= mask(word, from, to);
+                } else {
+                    words[word] &= ~mask(word, from, to);
+                }
+            }
+        }
+    }
+
+    private static long mask(int word, int from, int to) {
+        // bits from..to (inclusive, numbered within the day) falling into the given word
+        long mask = -1L;
+        if (word == from >>> 6) {
+            mask &= -1L << (from & 63);
+        }
+        if (word == to >>> 6) {
+            mask &= -1L >>> (63 - (to & 63));
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+
+class TimeIndexOverlapValidator implements OverlapValidator {
+
+    // Stored periods never overlap each other, so only the neighbours of the task start in the time index
+    // have to be checked: O(log n) plus the tasks starting at exactly the same moment.
+
+    @Override
+    public boolean hasOverlap(NavigableSet<Task> tasksByTime, Task task) {
+        if (tasksByTime.isEmpty()) {
+            return false;
+        }
+        final LocalDateTime start = task.getStartTime();
+        if (start == null || tasksByTime.first().getStartTime() == null) {
+            return true;  // task without start time conflicts with any other one, see OverlapValidator.overlapped()
+        }
+        // the latest period started before the task may still run at its start
+        Task before = tasksByTime.lower(probe(start, Integer.MIN_VALUE));
+        if (before != null && anyOverlappedStartingAt(tasksByTime, before.getStartTime(), task)) {
+            return true;
+        }
+        if (anyOverlappedStartingAt(tasksByTime, start, task)) {
+            return true;
+        }
+        // the earliest period started after the task start conflicts if it starts before the task end
+        Task after = tasksByTime.higher(probe(start, Integer.MAX_VALUE));
+        return after != null && after.getStartTime().isBefore(task.getEndTime());
+    }
+
+    private boolean anyOverlappedStartingAt(NavigableSet<Task> tasksByTime, LocalDateTime start, Task task) {
+        // several periods may start at the same moment only if all of them but one are zero-length
+        for (Task t : tasksByTime.subSet(probe(start, Integer.MIN_VALUE), true, probe(start, Integer.MAX_VALUE), true)) {
+            if (OverlapValidator.overlapped(t, task)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Probes are copies of the template: the copy constructor only copies fields, while new Task() takes
+    // the StringPool lock twice and reads the clock, on every lookup of a reader holding the manager lock
+    private static final Task PROBE_TEMPLATE = new Task("", "");
+
+    static Task probe(LocalDateTime startTime, int id) {
+        // search key for the time index ordered by start time and then by ID
+        Task probe = new Task(PROBE_TEMPLATE);
+        probe.setId(id);
+        probe.setStartTime(startTime);
+        return probe;
+    }
+}
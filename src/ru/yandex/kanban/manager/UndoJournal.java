@@ -0,0 +1,255 @@
+package ru.yandex.kanban.manager;
+
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskType;
+import ru.yandex.kanban.util.IntIntHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+class UndoJournal {
+    // Bounded undo/redo history. A step keeps the value before and after one manager call for every ID
+    // the call touched and the dependency edges it added or dropped, nothing else of the board. Stored tasks and subtasks are sealed, so the values
+    // are shared references and a changed version shares its unchanged fields with the other one;
+    // only mutable epics are copied. Steps leave the journal oldest first once the estimated size
+    // of the kept values exceeds the budget.
+
+    static final long DEFAULT_BUDGET = 4L << 20;  // bytes
+
+    private static final long CHANGE_SIZE = 32;
+    private static final long VALUE_SIZE = 64;    // task object with its time fields
+    private static final long STEP_SIZE = 48;
+    private static final long EDGE_SIZE = 24;
+
+    private final ArrayDeque<Step> undoSteps = new ArrayDeque<>();
+    private final ArrayDeque<Step> redoSteps = new ArrayDeque<>();
+    private long budget;
+    private long size;
+    private Step current;
+    private int depth;       // nesting of grouped calls, e.g. deleteEpic() calling deleteSubtask()
+    private boolean replaying;
+
+    UndoJournal(long budget) {
+        this.budget = budget;
+    }
+
+    boolean isRecording() {
+        return budget > 0 && !replaying;
+    }
+
+    void setBudget(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Undo budget cannot be negative: " + budget);
+        }
+        this.budget = budget;
+        evict();
+    }
+
+    void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        size = 0;
+    }
+
+    void begin() {
+        depth++;
+    }
+
+    void end() {
+        if (--depth == 0) {
+            close();
+        }
+    }
+
+    void record(TaskType type, int id, Task oldValue, Task newValue) {
+        if (!isRecording()) {
+            return;
+        }
+        if (current == null) {
+            current = new Step();
+        }
+        current.record(type, id, copy(oldValue), copy(newValue));
+        if (depth == 0) {
+            close();
+        }
+    }
+
+    void recordEdge(int predecessorId, int successorId, boolean added) {
+        // part of the step of the next recorded change, e.g. the deletion that dropped the edge
+        if (!isRecording()) {
+            return;
+        }
+        if (current == null) {
+            current = new Step();
+        }
+        current.edges.add(new EdgeChange(predecessorId, successorId, added));
+        current.size += EDGE_SIZE;
+    }
+
+    Step peekUndo() {
+        return undoSteps.peekLast();
+    }
+
+    Step peekRedo() {
+        return redoSteps.peekLast();
+    }
+
+    void undone() {
+        redoSteps.addLast(undoSteps.removeLast());
+    }
+
+    void redone() {
+        undoSteps.addLast(redoSteps.removeLast());
+    }
+
+    void replaying(Runnable change) {
+        // changes made by undo and redo are not recorded as new steps
+        replaying = true;
+        try {
+            change.run();
+        } finally {
+            replaying = false;
+        }
+    }
+
+    int undoSize() {
+        return undoSteps.size();
+    }
+
+    int redoSize() {
+        return redoSteps.size();
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    private void close() {
+        Step step = current;
+        current = null;
+        if (step == null || (step.changes.isEmpty() && step.edges.isEmpty())) {
+            return;
+        }
+        redoSteps.forEach(redo -> size -= redo.size);
+        redoSteps.clear();  // a new change makes the undone steps unreachable
+        undoSteps.addLast(step);
+        size += step.size;
+        evict();
+    }
+
+    private void evict() {
+        while (size > budget && !undoSteps.isEmpty()) {
+            size -= undoSteps.removeFirst().size;
+        }
+        while (size > budget && !redoSteps.isEmpty()) {
+            size -= redoSteps.removeFirst().size;  // the farthest one from the current state
+        }
+    }
+
+    private static Task copy(Task value) {
+        return value instanceof Epic epic ? new Epic(epic) : value;
+    }
+
+    static class Step {
+        private final List<Change> changes = new ArrayList<>(1);
+        private final List<EdgeChange> edges = new ArrayList<>(0);  // in the order they were made
+        // ID --> position in changes, built when a step touches more than one ID; scattered keys keep
+        // lookups of new IDs short while a bulk delete records a dense ID range
+        private IntIntHashMap positionsById;
+        private long size = STEP_SIZE;
+
+        private void record(TaskType type, int id, Task oldValue, Task newValue) {
+            Change change = find(id);
+            if (change == null) {
+                change = new Change(type, id, oldValue, newValue);
+                changes.add(change);
+                if (positionsById != null) {
+                    positionsById.put(id, changes.size() - 1);
+                }
+            } else {
+                size -= change.size();
+                change.after = newValue;  // the value before the whole step stays
+            }
+            size += change.size();
+        }
+
+        private Change find(int id) {
+            if (positionsById == null) {
+                if (changes.isEmpty()) {
+                    return null;
+                }
+                if (changes.size() == 1) {
+                    return changes.get(0).id == id ? changes.get(0) : null;
+                }
+                positionsById = new IntIntHashMap(changes.size() * 2);
+                for (int i = 0; i < changes.size(); i++) {
+                    positionsById.put(changes.get(i).id, i);
+                }
+            }
+            final int position = positionsById.get(id);
+            return position < 0 ? null : changes.get(position);
+        }
+
+        List<Change> getChanges() {
+            return changes;
+        }
+
+        List<EdgeChange> getEdges() {
+            return edges;
+        }
+    }
+
+    static class EdgeChange {
+        final int predecessorId;
+        final int successorId;
+        final boolean added;  // false if the step dropped the edge
+
+        EdgeChange(int predecessorId, int successorId, boolean added) {
+            this.predecessorId = predecessorId;
+            this.successorId = successorId;
+            this.added = added;
+        }
+    }
+
+    static class Change {
+        final TaskType type;
+        final int id;
+        final Task before;  // null if the step created the ID
+        Task after;         // null if the step deleted the ID
+
+        Change(TaskType type, int id, Task before, Task after) {
+            this.type = type;
+            this.id = id;
+            this.before = before;
+            this.after = after;
+        }
+
+        private long size() {
+            return CHANGE_SIZE + valueSize(before, after) + valueSize(after, before);
+        }
+
+        private static long valueSize(Task value, Task other) {
+            // texts are counted only when the other version does not share them
+            if (value == null) {
+                return 0;
+            }
+            long size = VALUE_SIZE;
+            if (other == null || value.getTitle() != other.getTitle()) {
+                size += textSize(value.getTitle());
+            }
+            if (other == null || value.getDescription() != other.getDescription()) {
+                size += textSize(value.getDescription());
+            }
+            if (value instanceof Epic epic) {
+                size += 8L * epic.getSubtaskIds().size();
+            }
+            return size;
+        }
+
+        private static long textSize(String text) {
+            return text == null ? 0 : 40 + text.length();
+        }
+    }
+}
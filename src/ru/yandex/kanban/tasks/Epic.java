@@ -1,12 +1,19 @@
 package ru.yandex.kanban.tasks;
 
+import ru.yandex.kanban.util.PersistentIntSet;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
 
 public class Epic extends Task {
 
     protected LocalDateTime endTime;
-    protected ArrayList<Integer> subtaskIds = new ArrayList<>();
+    protected PersistentIntSet subtaskIds = PersistentIntSet.EMPTY;  // immutable, copies of the epic share it
 
     public Epic(String title, String description) {
         super(title, description);
@@ -16,7 +23,7 @@ public class Epic extends Task {
     public Epic(Epic epic) {
         super(epic);
         endTime = epic.endTime;
-        subtaskIds = new ArrayList<>(epic.subtaskIds);
+        subtaskIds = epic.subtaskIds;
     }
 
     @Override
@@ -25,21 +32,91 @@ public class Epic extends Task {
     }
 
     public void addSubtaskId(int id) {
-        if (!subtaskIds.contains(id)) {
-            subtaskIds.add(id);
-        }
+        checkNotSealed();
+        subtaskIds = subtaskIds.with(id);
+    }
+
+    public boolean hasSubtaskId(int id) {
+        return subtaskIds.contains(id);
     }
 
-    public ArrayList<Integer> getSubtaskIds() {
-        return subtaskIds;
+    public List<Integer> getSubtaskIds() {
+        // live read-only view: it follows the set this epic holds now
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                return subtaskIds.get(index);
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return subtaskIds.asList().iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer id && subtaskIds.contains(id);
+            }
+
+            @Override
+            public int size() {
+                return subtaskIds.size();
+            }
+        };
+    }
+
+    public void forEachSubtaskId(IntConsumer action) {
+        subtaskIds.forEach(action);
     }
 
     public void cleanSubtaskIds() {
-        subtaskIds.clear();
+        checkNotSealed();
+        subtaskIds = PersistentIntSet.EMPTY;
     }
 
     public void removeSubtaskId(int id) {
-        subtaskIds.remove(Integer.valueOf(id));  // remove Integer object, not by int index!
+        checkNotSealed();
+        subtaskIds = subtaskIds.without(id);
+    }
+
+    @Override
+    public Epic seal() {
+        return (Epic) super.seal();
+    }
+
+    public Epic withSubtaskId(int id) {
+        // the manager swaps the stored epic for a sealed copy, readers keep the old one unchanged;
+        // the copy shares all but O(log k) nodes of the subtask ID set with this epic
+        return sealedCopy(subtaskIds.with(id));
+    }
+
+    public Epic withoutSubtaskId(int id) {
+        return sealedCopy(subtaskIds.without(id));
+    }
+
+    public Epic withoutSubtaskIds() {
+        return sealedCopy(PersistentIntSet.EMPTY);
+    }
+
+    public Epic withAggregates(TaskStatus status, Duration duration, LocalDateTime startTime, LocalDateTime endTime) {
+        // fields derived from the subtasks, the version stays: the epic itself is not changed by the user
+        if (sealed && status == this.status && Objects.equals(duration, this.duration)
+                && Objects.equals(startTime, this.startTime) && Objects.equals(endTime, this.endTime)) {
+            return this;
+        }
+        Epic copy = sealedCopy(subtaskIds);
+        copy.status = status;
+        copy.duration = duration;
+        copy.startTime = startTime;
+        copy.endTime = endTime;
+        return copy;
+    }
+
+    private Epic sealedCopy(PersistentIntSet subtaskIds) {
+        Epic copy = new Epic(this);
+        copy.subtaskIds = subtaskIds;
+        copy.sealed = true;
+        return copy;
     }
 
     public LocalDateTime getEndTime() {
@@ -47,9 +124,15 @@ public class Epic extends Task {
     }
 
     public void setEndTime(LocalDateTime endTime) {
+        checkNotSealed();
         this.endTime = endTime;
     }
 
+    @Override
+    protected Epic copy() {
+        return new Epic(this);
+    }
+
     @Override
     public String toString() {
         return "Epic{" + super.getTaskString() + " with " + subtaskIds.size() + " subtasks}";
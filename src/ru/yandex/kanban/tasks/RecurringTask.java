@@ -0,0 +1,130 @@
+package ru.yandex.kanban.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class RecurringTask extends Task {
+    // One stored row for a series of equal periods: occurrence #k starts at startTime + k * repeatEvery.
+    // Occurrences are not stored, the manager builds them on reading as sealed Task copies with the rule ID.
+
+    protected Duration repeatEvery;
+    protected int occurrences;
+
+    public RecurringTask(String title, String description, Duration repeatEvery, int occurrences) {
+        super(title, description);
+        this.repeatEvery = repeatEvery;
+        this.occurrences = occurrences;
+    }
+
+    public RecurringTask(RecurringTask task) {
+        super(task);
+        repeatEvery = task.repeatEvery;
+        occurrences = task.occurrences;
+    }
+
+    public Duration getRepeatEvery() {
+        return repeatEvery;
+    }
+
+    public void setRepeatEvery(Duration repeatEvery) {
+        checkNotSealed();
+        this.repeatEvery = repeatEvery;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        checkNotSealed();
+        this.occurrences = occurrences;
+    }
+
+    public LocalDateTime getOccurrenceStart(long index) {
+        return startTime.plus(repeatEvery.multipliedBy(index));
+    }
+
+    public LocalDateTime getLastEndTime() {
+        return getOccurrenceStart(occurrences - 1).plus(duration);
+    }
+
+    public Task getOccurrence(long index) {
+        Task occurrence = new Task(this);
+        occurrence.startTime = getOccurrenceStart(index);
+        occurrence.sealed = true;
+        return occurrence;
+    }
+
+    public RecurringTask withRecurrence(Duration repeatEvery, int occurrences) {
+        RecurringTask copy = copy();
+        copy.repeatEvery = repeatEvery;
+        copy.occurrences = occurrences;
+        copy.version = version + 1;
+        copy.sealed = true;
+        return copy;
+    }
+
+    @Override
+    public RecurringTask seal() {
+        return (RecurringTask) super.seal();
+    }
+
+    @Override
+    public RecurringTask withId(int id) {
+        return (RecurringTask) super.withId(id);
+    }
+
+    @Override
+    public RecurringTask withTitle(String title) {
+        return (RecurringTask) super.withTitle(title);
+    }
+
+    @Override
+    public RecurringTask withDescription(String description) {
+        return (RecurringTask) super.withDescription(description);
+    }
+
+    @Override
+    public RecurringTask withStatus(TaskStatus status) {
+        return (RecurringTask) super.withStatus(status);
+    }
+
+    @Override
+    public RecurringTask withDuration(Duration duration) {
+        return (RecurringTask) super.withDuration(duration);
+    }
+
+    @Override
+    public RecurringTask withStartTime(LocalDateTime startTime) {
+        return (RecurringTask) super.withStartTime(startTime);
+    }
+
+    @Override
+    public RecurringTask withVersion(long version) {
+        return (RecurringTask) super.withVersion(version);
+    }
+
+    @Override
+    protected RecurringTask copy() {
+        return new RecurringTask(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) return false;
+        RecurringTask task = (RecurringTask) o;
+        return occurrences == task.occurrences && Objects.equals(repeatEvery, task.repeatEvery);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), repeatEvery, occurrences);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringTask{" + super.getTaskString() + ", repeatEvery=" + repeatEvery
+                + ", occurrences=" + occurrences + '}';
+    }
+}
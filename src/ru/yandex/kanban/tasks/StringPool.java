@@ -0,0 +1,131 @@
+package ru.yandex.kanban.tasks;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class StringPool {
+    // Shared texts of tasks. Titles and short descriptions are interned, so templated subtasks and copied
+    // epics keep one String per distinct text. Long descriptions are kept deflated, also one copy per
+    // distinct text, and inflated by getDescription(); the last inflated texts are cached by slot, so
+    // templated descriptions are mostly read without inflating. Entries go away with the last task
+    // referring to them.
+
+    static final int PACK_FROM = 256;  // chars; shorter texts do not shrink enough to pay for inflating
+
+    private static final WeakHashMap<String, WeakReference<String>> STRINGS = new WeakHashMap<>();
+    private static final WeakHashMap<Packed, WeakReference<Packed>> PACKED = new WeakHashMap<>();
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    private static final int UNPACKED_SLOTS = 256;
+    private static final AtomicReferenceArray<Unpacked> UNPACKED = new AtomicReferenceArray<>(UNPACKED_SLOTS);
+
+    private StringPool() {
+    }
+
+    public static String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        synchronized (STRINGS) {
+            WeakReference<String> reference = STRINGS.get(text);
+            String pooled = reference == null ? null : reference.get();
+            if (pooled == null) {
+                STRINGS.put(text, new WeakReference<>(text));
+                pooled = text;
+            }
+            return pooled;
+        }
+    }
+
+    public static boolean shouldPack(String text) {
+        return text != null && text.length() >= PACK_FROM;
+    }
+
+    static Packed pack(String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2 + 16);
+        byte[] buffer = new byte[Math.max(64, bytes.length / 2)];
+        while (!deflater.finished()) {
+            output.write(buffer, 0, deflater.deflate(buffer));
+        }
+        Packed packed = new Packed(output.toByteArray(), bytes.length, text.length(), text.hashCode());
+        synchronized (PACKED) {
+            WeakReference<Packed> reference = PACKED.get(packed);
+            Packed pooled = reference == null ? null : reference.get();
+            if (pooled == null) {
+                PACKED.put(packed, new WeakReference<>(packed));
+                pooled = packed;
+            }
+            return pooled;
+        }
+    }
+
+    static String unpack(Packed packed) {
+        final int slot = packed.textHash & (UNPACKED_SLOTS - 1);
+        Unpacked cached = UNPACKED.get(slot);
+        if (cached != null && cached.packed == packed) {
+            return cached.text;
+        }
+        String text = inflate(packed);
+        UNPACKED.set(slot, new Unpacked(packed, text));
+        return text;
+    }
+
+    private static String inflate(Packed packed) {
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(packed.bytes);
+        byte[] bytes = new byte[packed.byteLength];
+        try {
+            int length = 0;
+            while (length < bytes.length && !inflater.finished()) {
+                length += inflater.inflate(bytes, length, bytes.length - length);
+            }
+        } catch (DataFormatException exception) {
+            throw new IllegalStateException("Corrupted packed text", exception);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Unpacked(Packed packed, String text) {
+    }
+
+    static final class Packed {
+        private final byte[] bytes;
+        private final int byteLength;
+        final int length;      // of the text in chars
+        final int textHash;    // String.hashCode() of the text, so tasks hash the same packed or not
+
+        private Packed(byte[] bytes, int byteLength, int length, int textHash) {
+            this.bytes = bytes;
+            this.byteLength = byteLength;
+            this.length = length;
+            this.textHash = textHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            // deflating is deterministic, so equal texts have equal bytes
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Packed packed = (Packed) o;
+            return textHash == packed.textHash && Arrays.equals(bytes, packed.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return textHash;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package ru.yandex.kanban.tasks;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 public class Subtask extends Task {
 
     protected int epicId;
@@ -18,6 +21,59 @@ public class Subtask extends Task {
         return epicId;
     }
 
+    public Subtask withEpicId(int epicId) {
+        Subtask copy = copy();
+        copy.epicId = epicId;
+        copy.version = version + 1;
+        copy.sealed = true;
+        return copy;
+    }
+
+    @Override
+    public Subtask seal() {
+        return (Subtask) super.seal();
+    }
+
+    @Override
+    public Subtask withId(int id) {
+        return (Subtask) super.withId(id);
+    }
+
+    @Override
+    public Subtask withTitle(String title) {
+        return (Subtask) super.withTitle(title);
+    }
+
+    @Override
+    public Subtask withDescription(String description) {
+        return (Subtask) super.withDescription(description);
+    }
+
+    @Override
+    public Subtask withStatus(TaskStatus status) {
+        return (Subtask) super.withStatus(status);
+    }
+
+    @Override
+    public Subtask withDuration(Duration duration) {
+        return (Subtask) super.withDuration(duration);
+    }
+
+    @Override
+    public Subtask withStartTime(LocalDateTime startTime) {
+        return (Subtask) super.withStartTime(startTime);
+    }
+
+    @Override
+    public Subtask withVersion(long version) {
+        return (Subtask) super.withVersion(version);
+    }
+
+    @Override
+    protected Subtask copy() {
+        return new Subtask(this);
+    }
+
     @Override
     public String toString() {
         return "Subtask{" + super.getTaskString() + ", parent epic id=" + epicId + '}';
@@ -11,13 +11,19 @@ public class Task implements Comparable<Task> {
     protected int id;
     protected String title;
     protected String description;
+    protected transient StringPool.Packed packedDescription;  // long descriptions, description is null then
     protected TaskStatus status;
     protected Duration duration;
     protected LocalDateTime startTime;
+    // grows with every stored change of the task, a with*() copy carries the next one;
+    // see TaskManager.updateTask(Task, long)
+    protected long version;
+    // set on tasks stored by the manager: they are changed through with*() copies and update calls only
+    protected transient boolean sealed;
 
     public Task(String title, String description) {
-        this.title = title;
-        this.description = description;
+        this.title = StringPool.intern(title);
+        putDescription(description);
         status = TaskStatus.NEW;
         duration = Duration.ofMinutes(0);
         startTime = LocalDateTime.now();
@@ -27,9 +33,11 @@ public class Task implements Comparable<Task> {
         id = task.id;
         title = task.title;
         description = task.description;
+        packedDescription = task.packedDescription;
         status = task.status;
         duration = task.duration;
         startTime = task.startTime;
+        version = task.version;
     }
 
     public int getId() {
@@ -37,6 +45,7 @@ public class Task implements Comparable<Task> {
     }
 
     public void setId(int id) {
+        checkNotSealed();
         this.id = id;
     }
 
@@ -45,15 +54,36 @@ public class Task implements Comparable<Task> {
     }
 
     public void setTitle(String title) {
-        this.title = title;
+        checkNotSealed();
+        this.title = StringPool.intern(title);
     }
 
     public String getDescription() {
-        return description;
+        return packedDescription != null ? StringPool.unpack(packedDescription) : description;
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        checkNotSealed();
+        putDescription(description);
+    }
+
+    private void putDescription(String description) {
+        if (StringPool.shouldPack(description)) {
+            this.description = null;
+            packedDescription = StringPool.pack(description);
+        } else {
+            this.description = StringPool.intern(description);
+            packedDescription = null;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        checkNotSealed();
+        this.version = version;
     }
 
     public TaskStatus getStatus() {
@@ -61,9 +91,85 @@ public class Task implements Comparable<Task> {
     }
 
     public void setStatus(TaskStatus status) {
+        checkNotSealed();
         this.status = status;
     }
 
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    public Task seal() {
+        // the sealed copy is shared by readers without copying, the task itself stays changeable
+        return sealed ? this : sealedCopy();
+    }
+
+    public Task withId(int id) {
+        Task copy = sealedCopy();
+        copy.id = id;
+        return copy;
+    }
+
+    public Task withTitle(String title) {
+        Task copy = nextVersionCopy();
+        copy.title = StringPool.intern(title);
+        return copy;
+    }
+
+    public Task withDescription(String description) {
+        Task copy = nextVersionCopy();
+        copy.putDescription(description);
+        return copy;
+    }
+
+    public Task withStatus(TaskStatus status) {
+        Task copy = nextVersionCopy();
+        copy.status = status;
+        return copy;
+    }
+
+    public Task withDuration(Duration duration) {
+        Task copy = nextVersionCopy();
+        copy.duration = duration;
+        return copy;
+    }
+
+    public Task withStartTime(LocalDateTime startTime) {
+        Task copy = nextVersionCopy();
+        copy.startTime = startTime;
+        return copy;
+    }
+
+    public Task withVersion(long version) {
+        Task copy = sealedCopy();
+        copy.version = version;
+        return copy;
+    }
+
+    protected Task copy() {
+        return new Task(this);
+    }
+
+    private Task sealedCopy() {
+        Task copy = copy();
+        copy.sealed = true;
+        return copy;
+    }
+
+    private Task nextVersionCopy() {
+        // a changed copy is the next version of the task, so the manager stores it without copying again
+        Task copy = sealedCopy();
+        copy.version = version + 1;
+        return copy;
+    }
+
+    protected void checkNotSealed() {
+        if (sealed) {
+            throw new IllegalStateException("Task #" + id + " is stored by the manager and cannot be changed,"
+                    + " pass a with*() copy to the update instead");
+        }
+    }
+
     public boolean isEpic() {
         return false;
     }
@@ -73,14 +179,28 @@ public class Task implements Comparable<Task> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
-        return id == task.id && Objects.equals(title, task.title) && Objects.equals(description, task.description)
+        return id == task.id && Objects.equals(title, task.title) && hasSameDescription(task)
                 && status == task.status && Objects.equals(duration, task.duration)
                 && Objects.equals(startTime.truncatedTo(SECONDS), task.startTime.truncatedTo(SECONDS));
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, description, status, startTime, duration);
+        return Objects.hash(id, title, getDescriptionHash(), status, startTime, duration);
+    }
+
+    private boolean hasSameDescription(Task task) {
+        if (packedDescription == null && task.packedDescription == null) {
+            return Objects.equals(description, task.description);
+        }
+        if (packedDescription != null && task.packedDescription != null) {
+            return packedDescription.equals(task.packedDescription);
+        }
+        return Objects.equals(getDescription(), task.getDescription());  // set bypassing putDescription(), e.g. by Gson
+    }
+
+    private int getDescriptionHash() {
+        return packedDescription != null ? packedDescription.textHash : Objects.hashCode(description);
     }
 
     @Override
@@ -93,6 +213,7 @@ public class Task implements Comparable<Task> {
     }
 
     public void setDuration(Duration duration) {
+        checkNotSealed();
         this.duration = duration;
     }
 
@@ -101,6 +222,7 @@ public class Task implements Comparable<Task> {
     }
 
     public void setStartTime(LocalDateTime startTime) {
+        checkNotSealed();
         this.startTime = startTime;
     }
 
@@ -131,7 +253,9 @@ public class Task implements Comparable<Task> {
         String result = "id=" + id +
                         ", title='" + title + '\'' +
                         ", status=" + status;
-        if (description == null) {
+        if (packedDescription != null) {
+            result += ", description length=" + packedDescription.length;
+        } else if (description == null) {
             result += ", description is empty";
         } else {
             result += ", description length=" + description.length();
@@ -0,0 +1,136 @@
+package ru.yandex.kanban.util;
+
+import java.util.Arrays;
+
+public class IntIntHashMap {
+    // IntObjectHashMap with primitive non-negative int values, get() returns -1 for a missing key.
+    // An empty slot is the one with -1 value.
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public IntIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != EMPTY;
+    }
+
+    public int get(int key) {
+        for (int slot = slotOf(key); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    public int put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value is not allowed for key " + key + ": " + value);
+        }
+        int slot = slotOf(key);
+        for (; values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int oldValue = values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2);
+        }
+        return EMPTY;
+    }
+
+    public int remove(int key) {
+        for (int slot = slotOf(key); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int oldValue = values[slot];
+                shiftBack(slot);
+                size--;
+                return oldValue;
+            }
+        }
+        return EMPTY;
+    }
+
+    public void clear() {
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    private void shiftBack(int freeSlot) {
+        // same as IntObjectHashMap.shiftBack()
+        int slot = freeSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == EMPTY) {
+                break;
+            }
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - freeSlot) & mask)) {
+                keys[freeSlot] = keys[slot];
+                values[freeSlot] = values[slot];
+                freeSlot = slot;
+            }
+        }
+        values[freeSlot] = EMPTY;
+    }
+
+    private int slotOf(int key) {
+        final int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != EMPTY) {
+                int newSlot = slotOf(oldKeys[slot]);
+                while (values[newSlot] != EMPTY) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
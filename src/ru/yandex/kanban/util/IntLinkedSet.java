@@ -0,0 +1,246 @@
+package ru.yandex.kanban.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+public class IntLinkedSet {
+    // Set of primitive ints keeping the insertion order, with O(1) add, remove and contains.
+    // Values are kept in a dense array; removed ones leave a hole that is dropped by compaction
+    // once holes outnumber values. An open addressing table maps every value to its array position.
+
+    private static final int HOLE = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] items = new int[MIN_CAPACITY];
+    private int end;   // items[0..end) hold values and holes
+    private int size;
+
+    private int[] tableKeys = new int[MIN_CAPACITY * 2];
+    private int[] tablePositions = new int[MIN_CAPACITY * 2];  // position + 1, 0 for an empty slot
+    private int mask = MIN_CAPACITY * 2 - 1;
+
+    public IntLinkedSet() {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        return findSlot(value) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (value == HOLE) {
+            throw new IllegalArgumentException("Value " + value + " is reserved");
+        }
+        if (contains(value)) {
+            return false;
+        }
+        if (end == items.length) {
+            if (end - size > size) {
+                compact();
+            } else {
+                items = Arrays.copyOf(items, items.length * 2);
+            }
+        }
+        if ((size + 1) * 2 > mask + 1) {
+            rebuildTable((mask + 1) * 2);  // keeps the table at most half full
+        }
+        items[end] = value;
+        insertSlot(value, end);
+        end++;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = findSlot(value);
+        if (slot < 0) {
+            return false;
+        }
+        items[tablePositions[slot] - 1] = HOLE;
+        removeSlot(slot);
+        size--;
+        if (end - size > size && end > MIN_CAPACITY) {
+            compact();
+        }
+        return true;
+    }
+
+    public int removeIf(IntPredicate filter) {
+        // one pass and one compaction for any number of removed values, returns their number
+        int removed = 0;
+        for (int i = 0; i < end; i++) {
+            if (items[i] != HOLE && filter.test(items[i])) {
+                items[i] = HOLE;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            size -= removed;
+            compact();
+        }
+        return removed;
+    }
+
+    public void clear() {
+        end = 0;
+        size = 0;
+        Arrays.fill(tablePositions, 0);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < end; i++) {
+            if (items[i] != HOLE) {
+                action.accept(items[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (items[i] != HOLE) {
+                result[count++] = items[i];
+            }
+        }
+        return result;
+    }
+
+    public List<Integer> asList() {
+        // live read-only view, values are boxed only on access
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of size " + size);
+                }
+                if (end == size) {  // no holes
+                    return items[index];
+                }
+                for (int i = 0; ; i++) {
+                    if (items[i] != HOLE && index-- == 0) {
+                        return items[i];
+                    }
+                }
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<>() {
+                    private int position = nextPosition(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < end;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (position >= end) {
+                            throw new NoSuchElementException();
+                        }
+                        int value = items[position];
+                        position = nextPosition(position + 1);
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer value && IntLinkedSet.this.contains(value);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int nextPosition(int from) {
+        while (from < end && items[from] == HOLE) {
+            from++;
+        }
+        return from;
+    }
+
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (items[i] != HOLE) {
+                items[count++] = items[i];
+            }
+        }
+        end = count;
+        int capacity = MIN_CAPACITY * 2;
+        while (capacity < (size + 1) * 2) {
+            capacity <<= 1;
+        }
+        rebuildTable(capacity);
+    }
+
+    private void rebuildTable(int capacity) {
+        tableKeys = new int[capacity];
+        tablePositions = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < end; i++) {
+            if (items[i] != HOLE) {
+                insertSlot(items[i], i);
+            }
+        }
+    }
+
+    private int findSlot(int value) {
+        for (int slot = slotOf(value); tablePositions[slot] != 0; slot = (slot + 1) & mask) {
+            if (tableKeys[slot] == value) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int value, int position) {
+        int slot = slotOf(value);
+        while (tablePositions[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        tableKeys[slot] = value;
+        tablePositions[slot] = position + 1;
+    }
+
+    private void removeSlot(int freeSlot) {
+        // shift back the following entries of the probe chain, as IntObjectHashMap does
+        int slot = freeSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (tablePositions[slot] == 0) {
+                break;
+            }
+            int home = slotOf(tableKeys[slot]);
+            if (((slot - home) & mask) >= ((slot - freeSlot) & mask)) {
+                tableKeys[freeSlot] = tableKeys[slot];
+                tablePositions[freeSlot] = tablePositions[slot];
+                freeSlot = slot;
+            }
+        }
+        tablePositions[freeSlot] = 0;
+    }
+
+    private int slotOf(int value) {
+        int hash = value * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,219 @@
+package ru.yandex.kanban.util;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+public class IntObjectHashMap<V> {
+    // Open addressing map with primitive int keys: two flat arrays, no boxed keys and no entry objects.
+    // Linear probing; removal shifts the following entries back, so no tombstones are left.
+    // An empty slot is the one with null value, so null values are not allowed.
+    // forEachKey() and values() go in ascending key order like HashMap<Integer, V> of sequential IDs did:
+    // the slots are scattered, so every pass sorts the occupied ones, O(n log n).
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public IntObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int slot = slotOf(key); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value is not allowed for key " + key);
+        }
+        int slot = slotOf(key);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V oldValue = (V) values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        for (int slot = slotOf(key); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V oldValue = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return oldValue;
+            }
+        }
+        return null;
+    }
+
+    public int removeIf(IntPredicate filter) {
+        // drops the entries of the matching keys in one pass and one rehash, returns their number
+        int removed = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null && filter.test(keys[slot])) {
+                values[slot] = null;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            size -= removed;
+            rehash(values.length);
+        }
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public void forEachKey(IntConsumer action) {
+        for (int slot : sortedSlots()) {
+            action.accept(keys[slot]);
+        }
+    }
+
+    public Collection<V> values() {
+        // read-only view, must not be iterated while the map is changed
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new Iterator<>() {
+                    private final int[] slots = sortedSlots();
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < slots.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next() {
+                        if (next >= slots.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return (V) values[slots[next++]];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int[] sortedSlots() {
+        // a key and its slot packed into one long sort by the key, the slot fits the low half
+        long[] packed = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                packed[count++] = ((long) keys[slot] << 32) | slot;
+            }
+        }
+        Arrays.sort(packed);
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = (int) packed[i];
+        }
+        return slots;
+    }
+
+    private void shiftBack(int freeSlot) {
+        // move back the entries of the same probe chain that would become unreachable after removal
+        int slot = freeSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - freeSlot) & mask)) {
+                keys[freeSlot] = keys[slot];
+                values[freeSlot] = values[slot];
+                freeSlot = slot;
+            }
+        }
+        values[freeSlot] = null;
+    }
+
+    private int slotOf(int key) {
+        // scatters sequential IDs: in sequential slots they would form one probe run, and every removal
+        // would walk the rest of it in shiftBack()
+        final int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != null) {
+                int newSlot = slotOf(oldKeys[slot]);
+                while (values[newSlot] != null) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
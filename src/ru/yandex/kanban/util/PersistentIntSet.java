@@ -0,0 +1,224 @@
+package ru.yandex.kanban.util;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+public final class PersistentIntSet {
+    // Immutable set of primitive ints keeping the insertion order. with() and without() return a new set
+    // sharing all but O(log n) nodes with this one, so a changed copy costs O(log n), not a copy of n values.
+    // Two path-copied AVL trees: value --> insertion number for contains() and removal,
+    // insertion number --> value for the order.
+
+    public static final PersistentIntSet EMPTY = new PersistentIntSet(null, null, 0);
+
+    private final Node byValue;
+    private final Node byOrder;
+    private final int nextOrder;
+
+    private static final class Node {
+        private final int key;
+        private final int value;
+        private final Node left;
+        private final Node right;
+        private final int height;
+        private final int size;
+
+        private Node(int key, int value, Node left, Node right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            height = Math.max(height(left), height(right)) + 1;
+            size = size(left) + size(right) + 1;
+        }
+    }
+
+    private PersistentIntSet(Node byValue, Node byOrder, int nextOrder) {
+        this.byValue = byValue;
+        this.byOrder = byOrder;
+        this.nextOrder = nextOrder;
+    }
+
+    public int size() {
+        return size(byValue);
+    }
+
+    public boolean isEmpty() {
+        return byValue == null;
+    }
+
+    public boolean contains(int value) {
+        return find(byValue, value) != null;
+    }
+
+    public PersistentIntSet with(int value) {
+        if (contains(value)) {
+            return this;
+        }
+        return new PersistentIntSet(put(byValue, value, nextOrder), put(byOrder, nextOrder, value), nextOrder + 1);
+    }
+
+    public PersistentIntSet without(int value) {
+        Node node = find(byValue, value);
+        if (node == null) {
+            return this;
+        }
+        if (size() == 1) {
+            return EMPTY;
+        }
+        return new PersistentIntSet(remove(byValue, value), remove(byOrder, node.value), nextOrder);
+    }
+
+    public int get(int index) {
+        // value by its position in the insertion order, O(log n)
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        Node node = byOrder;
+        while (true) {
+            final int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    public void forEach(IntConsumer action) {
+        forEach(byOrder, action);
+    }
+
+    public int[] toArray() {
+        int[] array = new int[size()];
+        int[] position = {0};
+        forEach(value -> array[position[0]++] = value);
+        return array;
+    }
+
+    public List<Integer> asList() {
+        // read-only view, values are boxed only on access
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                return PersistentIntSet.this.get(index);
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                final int[] values = PersistentIntSet.this.toArray();  // one in-order walk, the set never changes
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (next >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return values[next++];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer value && PersistentIntSet.this.contains(value);
+            }
+
+            @Override
+            public int size() {
+                return PersistentIntSet.this.size();
+            }
+        };
+    }
+
+    private static void forEach(Node node, IntConsumer action) {
+        while (node != null) {  // the right subtree by the loop, the left one by recursion of AVL depth
+            forEach(node.left, action);
+            action.accept(node.value);
+            node = node.right;
+        }
+    }
+
+    private static Node find(Node node, int key) {
+        while (node != null && node.key != key) {
+            node = key < node.key ? node.left : node.right;
+        }
+        return node;
+    }
+
+    private static Node put(Node node, int key, int value) {
+        // the key is not in the tree yet
+        if (node == null) {
+            return new Node(key, value, null, null);
+        }
+        if (key < node.key) {
+            return balance(node.key, node.value, put(node.left, key, value), node.right);
+        }
+        return balance(node.key, node.value, node.left, put(node.right, key, value));
+    }
+
+    private static Node remove(Node node, int key) {
+        // the key is in the tree
+        if (key < node.key) {
+            return balance(node.key, node.value, remove(node.left, key), node.right);
+        }
+        if (key > node.key) {
+            return balance(node.key, node.value, node.left, remove(node.right, key));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node next = node.right;
+        while (next.left != null) {
+            next = next.left;
+        }
+        return balance(next.key, next.value, node.left, remove(node.right, next.key));
+    }
+
+    private static Node balance(int key, int value, Node left, Node right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left.key, left.value, left.left, left.right);
+            }
+            return rotateRight(key, value, left, right);
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.key, right.value, right.left, right.right);
+            }
+            return rotateLeft(key, value, left, right);
+        }
+        return new Node(key, value, left, right);
+    }
+
+    private static Node rotateLeft(int key, int value, Node left, Node right) {
+        return new Node(right.key, right.value, new Node(key, value, left, right.left), right.right);
+    }
+
+    private static Node rotateRight(int key, int value, Node left, Node right) {
+        return new Node(left.key, left.value, left.left, new Node(key, value, left.right, right));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.kanban.util;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+public class SortedListView<E> extends AbstractSet<E> implements SortedSet<E> {
+    // Read-only SortedSet over a random access list already sorted by the comparator, without duplicates.
+    // TreeSet.addAll() to an empty set and new TreeSet<>(SortedSet) build their tree from it in O(n),
+    // with no comparisons. Range views binary-search the list and refuse keys outside their own range.
+
+    private final List<E> sorted;
+    private final Comparator<? super E> comparator;
+    private final E low;    // inclusive bound of a range view, null for none
+    private final E high;   // exclusive bound of a range view, null for none
+
+    public SortedListView(List<E> sorted, Comparator<? super E> comparator) {
+        this(sorted, comparator, null, null);
+    }
+
+    private SortedListView(List<E> sorted, Comparator<? super E> comparator, E low, E high) {
+        this.sorted = sorted;
+        this.comparator = comparator;
+        this.low = low;
+        this.high = high;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return Collections.unmodifiableList(sorted).iterator();
+    }
+
+    @Override
+    public int size() {
+        return sorted.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        final int index = firstFrom((E) o);
+        return index < sorted.size() && comparator.compare(sorted.get(index), (E) o) == 0;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public E first() {
+        if (sorted.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return sorted.getFirst();
+    }
+
+    @Override
+    public E last() {
+        if (sorted.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return sorted.getLast();
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        if (comparator.compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement is greater than toElement");
+        }
+        checkInRange(fromElement);
+        checkInRange(toElement);
+        return view(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        checkInRange(toElement);
+        return view(low, toElement);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        checkInRange(fromElement);
+        return view(fromElement, high);
+    }
+
+    private SortedSet<E> view(E from, E to) {
+        final int start = from == null ? 0 : firstFrom(from);
+        final int end = to == null ? sorted.size() : Math.max(start, firstFrom(to));
+        return new SortedListView<>(sorted.subList(start, end), comparator, from, to);
+    }
+
+    private void checkInRange(E element) {
+        // a bound equal to the high one is allowed, like TreeSet views do
+        if ((low != null && comparator.compare(element, low) < 0)
+                || (high != null && comparator.compare(element, high) > 0)) {
+            throw new IllegalArgumentException("Key out of range: " + element);
+        }
+    }
+
+    private int firstFrom(E element) {
+        // index of the first element not less than the given one
+        int lowIndex = 0;
+        int highIndex = sorted.size();
+        while (lowIndex < highIndex) {
+            final int middle = (lowIndex + highIndex) >>> 1;
+            if (comparator.compare(sorted.get(middle), element) < 0) {
+                lowIndex = middle + 1;
+            } else {
+                highIndex = middle;
+            }
+        }
+        return lowIndex;
+    }
+}
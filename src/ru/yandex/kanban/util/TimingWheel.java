@@ -0,0 +1,220 @@
+package ru.yandex.kanban.util;
+
+import java.util.Arrays;
+
+public class TimingWheel {
+    // Hierarchical timing wheel of int keys, at most one timer a key. Level L has 64 slots of 64^L ticks each;
+    // a timer waits at the level of the highest 6-bit group its deadline differs from the current tick in and
+    // moves down when the wheel reaches its slot, so it is moved at most LEVELS times before it fires.
+    // A bitmap of occupied slots per level lets advance() jump straight to the next slot to handle:
+    // advancing by a year costs the timers on the way, not the ticks. Timers are rows of parallel arrays
+    // linked into slot lists, so scheduling and cancelling are O(1) without an object per timer.
+
+    public interface Expiry {
+        // called after the wheel has moved to the deadline; may schedule and cancel timers, the key is free again
+        void expired(int key, long deadline);
+    }
+
+    public static final long MAX_TICK = (1L << 60) - 1;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 10;   // 60 bits of ticks
+    private static final int NONE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private final IntIntHashMap nodesByKey = new IntIntHashMap();
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private long now;
+
+    private int[] keys = new int[MIN_CAPACITY];
+    private long[] deadlines = new long[MIN_CAPACITY];
+    private int[] next = new int[MIN_CAPACITY];    // the next node of the slot list or of the free list
+    private int[] prev = new int[MIN_CAPACITY];
+    private int[] slots = new int[MIN_CAPACITY];
+    private int used;
+    private int free = NONE;
+
+    // timers expired within one slot, handed to Expiry once the slot is done
+    private int[] expiredKeys = new int[MIN_CAPACITY];
+    private long[] expiredDeadlines = new long[MIN_CAPACITY];
+
+    public TimingWheel(long now) {
+        checkTick(now);
+        this.now = now;
+        Arrays.fill(heads, NONE);
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int size() {
+        return nodesByKey.size();
+    }
+
+    public long getDeadline(int key) {
+        final int node = nodesByKey.get(key);
+        return node == NONE ? NONE : deadlines[node];
+    }
+
+    public boolean schedule(int key, long deadline) {
+        // replaces the timer of the key; a deadline not after now only cancels it
+        checkTick(deadline);
+        int node = nodesByKey.get(key);
+        if (node != NONE) {
+            unlink(node);
+            if (deadline <= now) {
+                release(node);
+                return false;
+            }
+        } else {
+            if (deadline <= now) {
+                return false;
+            }
+            node = allocate();
+            keys[node] = key;
+            nodesByKey.put(key, node);
+        }
+        deadlines[node] = deadline;
+        link(node);
+        return true;
+    }
+
+    public boolean cancel(int key) {
+        final int node = nodesByKey.get(key);
+        if (node == NONE) {
+            return false;
+        }
+        unlink(node);
+        release(node);
+        return true;
+    }
+
+    public void clear() {
+        nodesByKey.clear();
+        Arrays.fill(heads, NONE);
+        Arrays.fill(occupied, 0);
+        used = 0;
+        free = NONE;
+    }
+
+    public int advance(long to, Expiry expiry) {
+        // fires the timers with deadlines up to 'to' in the order of deadlines, returns their number
+        checkTick(to);
+        if (to < now) {
+            throw new IllegalArgumentException("Wheel time cannot go back from " + now + " to " + to);
+        }
+        int fired = 0;
+        while (size() > 0) {
+            // every occupied slot of a level is ahead of the current one, so the lowest bit is the next slot
+            int level = NONE;
+            long at = Long.MAX_VALUE;
+            for (int l = 0; l < LEVELS; l++) {
+                if (occupied[l] != 0) {
+                    final int shift = SLOT_BITS * l;
+                    final long slotStart = (now >>> (shift + SLOT_BITS) << (shift + SLOT_BITS))
+                            | ((long) Long.numberOfTrailingZeros(occupied[l]) << shift);
+                    if (slotStart < at) {
+                        at = slotStart;
+                        level = l;
+                    }
+                }
+            }
+            if (at > to) {
+                break;
+            }
+            now = at;
+            fired += handleSlot(level, expiry);
+        }
+        now = to;
+        return fired;
+    }
+
+    private int handleSlot(int level, Expiry expiry) {
+        final int slot = (int) (now >>> (SLOT_BITS * level)) & (SLOTS - 1);
+        int node = heads[level * SLOTS + slot];
+        heads[level * SLOTS + slot] = NONE;
+        occupied[level] &= ~(1L << slot);
+        int count = 0;
+        while (node != NONE) {
+            final int following = next[node];
+            if (deadlines[node] <= now) {
+                if (count == expiredKeys.length) {
+                    expiredKeys = Arrays.copyOf(expiredKeys, count * 2);
+                    expiredDeadlines = Arrays.copyOf(expiredDeadlines, count * 2);
+                }
+                expiredKeys[count] = keys[node];
+                expiredDeadlines[count++] = deadlines[node];
+                release(node);
+            } else {
+                link(node);  // to a lower level
+            }
+            node = following;
+        }
+        for (int i = 0; i < count; i++) {
+            expiry.expired(expiredKeys[i], expiredDeadlines[i]);
+        }
+        return count;
+    }
+
+    private void link(int node) {
+        final long deadline = deadlines[node];
+        final int level = (63 - Long.numberOfLeadingZeros(deadline ^ now)) / SLOT_BITS;
+        final int slot = (int) (deadline >>> (SLOT_BITS * level)) & (SLOTS - 1);
+        final int head = level * SLOTS + slot;
+        next[node] = heads[head];
+        prev[node] = NONE;
+        if (heads[head] != NONE) {
+            prev[heads[head]] = node;
+        }
+        heads[head] = node;
+        slots[node] = head;
+        occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(int node) {
+        final int head = slots[node];
+        if (prev[node] != NONE) {
+            next[prev[node]] = next[node];
+        } else {
+            heads[head] = next[node];
+        }
+        if (next[node] != NONE) {
+            prev[next[node]] = prev[node];
+        }
+        if (heads[head] == NONE) {
+            occupied[head / SLOTS] &= ~(1L << (head % SLOTS));
+        }
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            final int node = free;
+            free = next[node];
+            return node;
+        }
+        if (used == keys.length) {
+            final int capacity = used * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int node) {
+        nodesByKey.remove(keys[node]);
+        next[node] = free;
+        free = node;
+    }
+
+    private static void checkTick(long tick) {
+        if (tick < 0 || tick > MAX_TICK) {
+            throw new IllegalArgumentException("Tick out of wheel range: " + tick);
+        }
+    }
+}
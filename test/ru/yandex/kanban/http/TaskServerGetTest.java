@@ -1,6 +1,8 @@
 package ru.yandex.kanban.http;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.*;
 import ru.yandex.kanban.manager.Managers;
@@ -56,6 +58,7 @@ class TaskServerGetTest {
         subtask.setStartTime(subtask.getStartTime().plusMinutes(60));
         subtask.setDuration(Duration.ofMinutes(30));
         manager.addNewSubtask(subtask);
+        epic = manager.peekEpic(epicId);  // stored epics are swapped for new copies as their subtasks change
     }
 
     @AfterAll
@@ -182,6 +185,48 @@ class TaskServerGetTest {
         }
     }
 
+    @Test
+    void searchTasks() throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            URI uri = URI.create("http://localhost:8080/search?q=subtask%20desc");
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            assertEquals(200, response.statusCode());
+
+            Type subtasksType = new TypeToken<ArrayList<Subtask>>() {
+            }.getType();
+            List<Task> actualSubtasks = gson.fromJson(response.body(), subtasksType);
+            assertEquals(1, actualSubtasks.size(), "Only the subtask has both words");
+            assertEquals(subtask, actualSubtasks.getFirst(), "The subtask from server is not equal to the initial one");
+
+            uri = URI.create("http://localhost:8080/search");
+            response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, response.statusCode(), "Query is required");
+
+            uri = URI.create("http://localhost:8080/search?q=desc%26limit%3D0");
+            response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), "Encoded '&' and '=' must stay in the query text");
+        }
+    }
+
+    @Test
+    void findSlotShouldExpectPositiveDuration() throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (String duration : List.of("0", "-30", "abc")) {
+                URI uri = URI.create("http://localhost:8080/slots?duration=" + duration);
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(400, response.statusCode(), "Duration " + duration + " must be refused");
+            }
+
+            URI uri = URI.create("http://localhost:8080/slots?duration=30");
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+        }
+    }
+
     @Test
     void getHistory() throws IOException, InterruptedException {
         manager.getTaskById(task.getId());  // to put the task into the history
@@ -216,4 +261,21 @@ class TaskServerGetTest {
             assertEquals(task, actualTasks.getFirst(), "The 1st prioritized task is not equal to the expected one");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStats() throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            URI uri = URI.create("http://localhost:8080/stats");
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            assertEquals(200, response.statusCode());
+
+            JsonObject stats = JsonParser.parseString(response.body()).getAsJsonObject();
+            assertEquals(1, stats.getAsJsonObject("counts").getAsJsonObject("TASK").get("NEW").getAsInt());
+            assertEquals(1, stats.getAsJsonObject("counts").getAsJsonObject("SUBTASK").get("NEW").getAsInt());
+            assertEquals(60, stats.get("plannedMinutes").getAsLong(), "Planned minutes of the task and the subtask");
+            assertEquals(0, stats.getAsJsonObject("epicProgress").get(String.valueOf(epic.getId())).getAsInt());
+        }
+    }
+}
@@ -67,6 +67,41 @@ class TaskServerPostTest {
                 "Incorrect task title");
     }
 
+    @Test
+    public void testUpdateTaskIfMatch() throws IOException, InterruptedException {
+        final int id = manager.addNewTask(new Task("Task to update title", "Task to update description"));
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            URI url = URI.create("http://localhost:8080/tasks/" + id);
+            HttpResponse<String> read = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            final String etag = read.headers().firstValue("ETag").orElseThrow();
+            assertEquals("\"1\"", etag);
+
+            Task first = gson.fromJson(read.body(), Task.class);
+            first.setTitle("First editor");
+            HttpRequest update = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks"))
+                    .header("If-Match", etag)
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(first)))
+                    .build();
+            HttpResponse<String> response = client.send(update, HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode());
+            assertEquals("\"2\"", response.headers().firstValue("ETag").orElseThrow());
+
+            Task second = gson.fromJson(read.body(), Task.class);
+            second.setTitle("Second editor");
+            HttpRequest stale = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks"))
+                    .header("If-Match", etag)
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(second)))
+                    .build();
+            assertEquals(412, client.send(stale, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                    "Update of a stale version must fail");
+        }
+
+        assertEquals("First editor", manager.peekTask(id).getTitle(), "The first update must not be lost");
+        assertEquals(2, manager.peekTask(id).getVersion());
+    }
+
     @Test
     public void testUpdateTask() throws IOException, InterruptedException {
         final Task task = new Task("Task to update title", "Task to update description");
@@ -166,4 +201,30 @@ class TaskServerPostTest {
         assertEquals("Epic to create title", epicsFromManager.getFirst().getTitle(),
                 "Incorrect epic title");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAddTaskToBoard() throws IOException, InterruptedException {
+        final Task task = new Task("Board task title", "Board task description");
+        String taskJson = gson.toJson(task);
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            URI url = URI.create("http://localhost:8080/boards/team-post/tasks");
+            HttpRequest request = HttpRequest.newBuilder().uri(url)
+                    .POST(HttpRequest.BodyPublishers.ofString(taskJson))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode());
+
+            request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/boards/bad%20name/tasks"))
+                    .POST(HttpRequest.BodyPublishers.ofString(taskJson))
+                    .build();
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, response.statusCode(), "Wrong board name must not be found");
+        }
+
+        List<Task> boardTasks = Managers.getDefaultBoards().getBoard("team-post").getTasks();
+        assertEquals(1, boardTasks.size(), "Task must be added to the board");
+        assertEquals(1, boardTasks.getFirst().getId(), "Board must have its own ID sequence");
+        assertTrue(manager.getTasks().isEmpty(), "Default board must not get the task");
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardRegistryTest {
+
+    private static Task task(LocalDateTime start) {
+        Task task = new Task("Task title", "Task description");
+        task.setStartTime(start);
+        task.setDuration(Duration.ofMinutes(60));
+        return task;
+    }
+
+    @Test
+    void boardsShouldBeIndependent() {
+        BoardRegistry registry = new BoardRegistry();
+        TaskManager first = registry.getBoard("team-a");
+        TaskManager second = registry.getBoard("team_b");
+        LocalDateTime start = LocalDateTime.of(2025, 8, 1, 9, 0);
+
+        assertSame(first, registry.getBoard("team-a"), "Board must be created once");
+        assertEquals(1, first.addNewTask(task(start)));
+        assertEquals(1, second.addNewTask(task(start)), "Boards must have own IDs and overlap domains");
+        assertThrows(TaskOverlapException.class, () -> first.addNewTask(task(start.plusMinutes(30))));
+
+        first.getTaskById(1);
+        assertEquals(1, first.getHistory().size());
+        assertTrue(second.getHistory().isEmpty(), "Boards must have own history");
+        assertEquals(Set.of("team-a", "team_b"), registry.getBoardNames());
+        assertThrows(IllegalArgumentException.class, () -> registry.getBoard("../etc"));
+    }
+
+    @Test
+    void fileBoardShouldBeRestoredFromItsOwnFile() throws IOException {
+        File directory = Files.createTempDirectory("java-kanban-boards").toFile();
+        Task task = task(LocalDateTime.of(2025, 8, 1, 9, 0));
+        new BoardRegistry(directory).getBoard("team-a").addNewTask(task);
+
+        assertTrue(new File(directory, "team-a.csv").exists(), "Board must be saved to its own file");
+        BoardRegistry restored = new BoardRegistry(directory);
+        assertEquals(List.of(task), restored.getBoard("team-a").getTasks());
+        assertTrue(restored.getBoard("team-b").getTasks().isEmpty());
+    }
+
+    @Test
+    void closedBoardsShouldReleaseArchiveFiles() {
+        BoardRegistry registry = new BoardRegistry();
+        TaskManager board = registry.getBoard("team-a");
+        Task task = task(LocalDateTime.of(2025, 8, 1, 9, 0));
+        task.setStatus(TaskStatus.DONE);
+        final int id = board.addNewTask(task);
+        assertEquals(1, board.archiveDone(LocalDateTime.of(2025, 8, 2, 0, 0)));
+
+        registry.close();
+        assertTrue(registry.getBoardNames().isEmpty(), "Closed boards must leave the registry");
+        assertThrows(ManagerSaveException.class, () -> board.getTaskById(id), "Archive file must be closed");
+        assertNotSame(board, registry.getBoard("team-a"), "Board must be created anew");
+    }
+}
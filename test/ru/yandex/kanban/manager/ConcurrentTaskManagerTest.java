@@ -0,0 +1,101 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest {
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 200;
+
+    private TaskManager manager;
+
+    @BeforeEach
+    void init() {
+        manager = new ConcurrentTaskManager(new InMemoryTaskManager());
+    }
+
+    @Test
+    void parallelWritersAndReadersShouldKeepBoardConsistent() throws Exception {
+        final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        final int epicId = manager.addNewEpic(new Epic("Epic title", "Epic description"));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int offset = thread * TASKS_PER_THREAD;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                        Subtask subtask = new Subtask("Subtask title", "Subtask description", epicId);
+                        subtask.setStartTime(start.plusMinutes(10L * (offset + i)));
+                        subtask.setDuration(Duration.ofMinutes(10));
+                        manager.addNewSubtask(subtask);
+                    }
+                }));
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                        List<Task> prioritized = manager.getPrioritizedTasks();
+                        if (!prioritized.isEmpty()) {
+                            assertNotNull(manager.getSubtaskById(prioritized.getFirst().getId()));
+                        }
+                        manager.getEpicSubtasks(epicId);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final int expectedCount = THREADS * TASKS_PER_THREAD;
+        assertEquals(expectedCount, manager.getSubtasks().size(), "All subtasks must be added");
+        assertEquals(expectedCount, manager.getPrioritizedTasks().size(), "All subtasks must be in the time index");
+        assertEquals(Duration.ofMinutes(10L * expectedCount), manager.getEpicById(epicId).getDuration(),
+                "Epic duration must include every subtask");
+    }
+
+    @Test
+    void overlappingTasksFromParallelWritersShouldBeRefused() throws Exception {
+        final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    Task task = new Task("Task title", "Task description");
+                    task.setStartTime(start);
+                    task.setDuration(Duration.ofMinutes(60));
+                    try {
+                        manager.addNewTask(task);
+                        return true;
+                    } catch (TaskOverlapException exception) {
+                        return false;
+                    }
+                }));
+            }
+            int added = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    added++;
+                }
+            }
+            assertEquals(1, added, "Only one of the same-time tasks must be added");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private final DependencyGraph graph = new DependencyGraph();
+
+    private static Task task(int id, int startMinute, int durationMinutes) {
+        Task task = new Task("Task title", "Task description");
+        task.setId(id);
+        task.setStartTime(BASE.plusMinutes(startMinute));
+        task.setDuration(Duration.ofMinutes(durationMinutes));
+        return task;
+    }
+
+    @Test
+    void shouldRejectEdgesClosingCycle() {
+        Task first = task(1, 0, 10);
+        Task second = task(2, 0, 10);
+        Task third = task(3, 0, 10);
+        graph.addEdge(second, third);
+        graph.addEdge(first, second);
+
+        assertThrows(DependencyCycleException.class, () -> graph.addEdge(third, first));
+        assertThrows(DependencyCycleException.class, () -> graph.addEdge(first, first));
+        assertArrayEquals(new int[]{1}, graph.getPredecessors(2), "Rejected edge must not be added");
+        assertEquals(0, graph.getPredecessors(1).length, "Rejected edge must not be added");
+        assertEquals(BASE.plusMinutes(20), graph.getEarliestStart(third), "Chain must postpone the last task");
+    }
+
+    @Test
+    void shouldKeepNodesOnlyForTasksWithEdges() {
+        Task first = task(1, 0, 10);
+        Task second = task(2, 0, 10);
+        Task alone = task(3, 0, 10);
+        graph.addEdge(first, second);
+
+        assertThrows(DependencyCycleException.class, () -> graph.addEdge(second, first));
+        assertThrows(DependencyCycleException.class, () -> graph.addEdge(alone, alone));
+        assertFalse(graph.contains(alone.getId()), "Rejected edge must not leave a node");
+        assertTrue(graph.contains(first.getId()) && graph.contains(second.getId()), "Accepted edge must keep nodes");
+
+        graph.addEdge(second, alone);
+        graph.removeEdge(first.getId(), second.getId());
+        assertFalse(graph.contains(first.getId()), "Task without edges must lose its node");
+        assertTrue(graph.contains(second.getId()), "Task with an edge left must keep its node");
+        graph.removeEdge(second.getId(), alone.getId());
+        assertFalse(graph.contains(second.getId()) || graph.contains(alone.getId()), "Nodes must be dropped");
+        assertEquals(alone.getStartTime(), graph.getEarliestStart(alone), "Task without edges starts on its own");
+    }
+
+    @Test
+    void shouldPropagateChangedPeriodToDescendantsOnly() {
+        Task first = task(1, 0, 30);
+        Task second = task(2, 0, 30);
+        Task independent = task(3, 0, 30);
+        graph.addEdge(first, second);
+        graph.addEdge(independent, task(4, 0, 30));
+        assertEquals(BASE.plusMinutes(30), graph.getEarliestStart(second));
+
+        graph.update(first.withDuration(Duration.ofMinutes(90)));
+        assertEquals(BASE.plusMinutes(90), graph.getEarliestStart(second), "Longer predecessor must postpone start");
+        graph.update(second.withStartTime(BASE.plusDays(1)));
+        assertEquals(BASE.plusDays(1), graph.getEarliestStart(second), "Later own start must win");
+        graph.remove(1);
+        assertEquals(0, graph.getPredecessors(2).length, "Removed task must leave no edges");
+        assertEquals(BASE, graph.getEarliestStart(independent));
+    }
+
+    @Test
+    void shouldBuildCriticalPathOfEpic() {
+        Task design = task(1, 0, 60);
+        Subtask build = subtask(2, 0, 120);
+        Subtask docs = subtask(3, 0, 30);
+        Subtask release = subtask(4, 0, 10);
+        graph.addEdge(design, build);
+        graph.addEdge(design, docs);
+        graph.addEdge(build, release);
+        graph.addEdge(docs, release);
+
+        assertEquals(List.of(design, build, release), graph.getCriticalPath(7, List.of(build, docs, release)));
+        Subtask longerDocs = docs.withDuration(Duration.ofMinutes(300));
+        graph.update(longerDocs);
+        assertEquals(List.of(design, longerDocs, release),
+                graph.getCriticalPath(7, List.of(build, longerDocs, release)), "Cached path must be rebuilt");
+    }
+
+    private static Subtask subtask(int id, int startMinute, int durationMinutes) {
+        Subtask subtask = new Subtask("Subtask title", "Subtask description", 7);
+        subtask.setId(id);
+        subtask.setStartTime(BASE.plusMinutes(startMinute));
+        subtask.setDuration(Duration.ofMinutes(durationMinutes));
+        return subtask;
+    }
+
+    @Test
+    void shouldMatchFullRecomputeOnRandomChanges() {
+        Random random = new Random(15);
+        Map<Integer, Task> tasks = new HashMap<>();
+        Map<Integer, Set<Integer>> predecessors = new HashMap<>();
+        for (int id = 1; id <= 60; id++) {
+            tasks.put(id, task(id, random.nextInt(600), 1 + random.nextInt(120)));
+            predecessors.put(id, new HashSet<>());
+        }
+        for (int step = 0; step < 2000; step++) {
+            final int from = 1 + random.nextInt(60);
+            final int to = 1 + random.nextInt(60);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    boolean cycle = from == to || reaches(predecessors, from, to);
+                    try {
+                        graph.addEdge(tasks.get(from), tasks.get(to));
+                        assertFalse(cycle, "Edge #" + from + " --> #" + to + " must be rejected");
+                        predecessors.get(to).add(from);
+                    } catch (DependencyCycleException exception) {
+                        assertTrue(cycle, "Edge #" + from + " --> #" + to + " must be accepted");
+                    }
+                }
+                case 2 -> {
+                    graph.removeEdge(from, to);
+                    predecessors.get(to).remove(from);
+                }
+                default -> {
+                    Task changed = tasks.get(from).withDuration(Duration.ofMinutes(1 + random.nextInt(120)));
+                    tasks.put(from, changed);
+                    graph.update(changed);
+                }
+            }
+            final int checked = 1 + random.nextInt(60);
+            assertEquals(earliestStart(tasks, predecessors, checked, new HashMap<>()),
+                    graph.getEarliestStart(tasks.get(checked)),
+                    "Wrong earliest start of #" + checked + " at step " + step);
+        }
+    }
+
+    private static boolean reaches(Map<Integer, Set<Integer>> predecessors, int from, int to) {
+        // is there a path to --> ... --> from, i.e. 'to' is an ancestor of 'from'
+        List<Integer> stack = new ArrayList<>(List.of(from));
+        Set<Integer> seen = new HashSet<>();
+        while (!stack.isEmpty()) {
+            int next = stack.removeLast();
+            if (next == to) {
+                return true;
+            }
+            if (seen.add(next)) {
+                stack.addAll(predecessors.get(next));
+            }
+        }
+        return false;
+    }
+
+    private static LocalDateTime earliestStart(Map<Integer, Task> tasks, Map<Integer, Set<Integer>> predecessors,
+                                               int id, Map<Integer, LocalDateTime> computed) {
+        LocalDateTime start = computed.get(id);
+        if (start != null) {
+            return start;
+        }
+        start = tasks.get(id).getStartTime();
+        for (int predecessor : predecessors.get(id)) {
+            LocalDateTime finish = earliestStart(tasks, predecessors, predecessor, computed)
+                    .plus(tasks.get(predecessor).getDuration());
+            if (finish.isAfter(start)) {
+                start = finish;
+            }
+        }
+        computed.put(id, start);
+        return start;
+    }
+}
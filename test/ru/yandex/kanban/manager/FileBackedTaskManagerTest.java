@@ -6,6 +6,8 @@ import ru.yandex.kanban.tasks.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -68,4 +70,49 @@ public class FileBackedTaskManagerTest {
         assertEquals(subtaskId, fileSubtask.getId(),"Subtask ID restored from file incorrectly");
         assertEquals(epicId, fileSubtask.getEpicId(),"Epic ID for subtask restored from file incorrectly");
     }
+
+    @Test
+    void shouldSaveBatchInFile() {
+        Task task = new Task("Task #1", "Task1 description");
+        int taskId = manager.addNewTask(task);
+        int epicId = manager.addNewEpic(new Epic("Epic #1", "Epic #1 description"));
+        Subtask subtask = new Subtask("Subtask #1", "Subtask #1 description", epicId);
+        subtask.setStartTime(task.getStartTime().plusHours(1));
+        Task updatedTask = new Task(task);
+        updatedTask.setStatus(TaskStatus.DONE);
+        int[] ids = manager.applyBatch(java.util.List.of(Mutation.update(updatedTask), Mutation.add(subtask)));
+
+        FileBackedTaskManager newManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(updatedTask, newManager.getTaskById(taskId), "Task of the batch restored from file incorrectly");
+        assertEquals(subtask, newManager.getSubtaskById(ids[1]), "Subtask of the batch restored from file incorrectly");
+    }
+
+    @Test
+    void shouldSaveAndRestoreRecurringTaskAsOneLine() {
+        RecurringTask standup = new RecurringTask("Standup", "Daily standup", java.time.Duration.ofDays(1), 250);
+        standup.setDuration(java.time.Duration.ofMinutes(15));
+        int standupId = manager.addNewTask(standup);
+
+        FileBackedTaskManager newManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(standup, newManager.getTaskById(standupId), "Recurring task restored from file incorrectly");
+        assertEquals(250, newManager.getPrioritizedTasks().size(), "Occurrences must be expanded after restoring");
+    }
+
+    @Test
+    void shouldKeepIdsAndOrderAfterRoundTrip() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(manager.addNewTask(new Task("Task #" + i, "Task description")));
+        }
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Epic description"));
+        final int subtaskId = manager.addNewSubtask(new Subtask("Subtask", "Subtask description", epicId));
+        manager.deleteTask(ids.remove(3));
+
+        FileBackedTaskManager newManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(ids, newManager.getTasks().stream().map(Task::getId).toList(), "IDs must be kept in order");
+        assertEquals("Task #7", newManager.getTaskById(ids.get(6)).getTitle(), "ID must refer to the same task");
+        assertEquals(List.of(subtaskId), newManager.getEpicById(epicId).getSubtaskIds());
+        assertEquals(subtaskId + 1, newManager.addNewTask(new Task("New task", "Task description")),
+                "New IDs must follow the stored ones");
+    }
 }
@@ -1,6 +1,10 @@
 package ru.yandex.kanban.manager;
 
 import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,4 +20,27 @@ class ManagersTest {
         HistoryManager history = Managers.getDefaultHistory();
         assertNotNull(history);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void timeGridManagerShouldRefuseOverlappingTasks() {
+        TaskManager manager = Managers.getTimeGridManager(15);
+        Task task = new Task("Task title", "Task description");
+        task.setStartTime(LocalDateTime.of(2025, 3, 3, 10, 0));
+        task.setDuration(Duration.ofMinutes(45));
+        manager.addNewTask(task);
+
+        Task overlapping = new Task("Overlapping", "Task description");
+        overlapping.setStartTime(LocalDateTime.of(2025, 3, 3, 10, 30));
+        overlapping.setDuration(Duration.ofMinutes(30));
+        assertThrows(TaskOverlapException.class, () -> manager.addNewTask(overlapping));
+
+        overlapping.setStartTime(LocalDateTime.of(2025, 3, 3, 10, 45));
+        manager.addNewTask(overlapping);
+        manager.deleteTask(task.getId());
+        Task replacing = new Task("Replacing", "Task description");
+        replacing.setStartTime(LocalDateTime.of(2025, 3, 3, 10, 0));
+        replacing.setDuration(Duration.ofMinutes(45));
+        manager.addNewTask(replacing);
+        assertEquals(2, manager.getPrioritizedTasks().size(), "Freed slots must be reusable");
+    }
+}
@@ -0,0 +1,162 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.RecurringTask;
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverlapValidatorTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final Comparator<Task> BY_TIME = comparing(Task::getStartTime, nullsFirst(naturalOrder()))
+            .thenComparing(Task::getId);
+
+    private final OverlapValidator validator = new TimeIndexOverlapValidator();
+    private final OverlapValidator reference = new LinearScanOverlapValidator();
+    private TreeSet<Task> tasksByTime;
+    private int seqId;
+
+    @BeforeEach
+    void init() {
+        tasksByTime = new TreeSet<>(BY_TIME);
+        seqId = 0;
+    }
+
+    private Task task(int startMinute, int durationMinutes) {
+        Task task = new Task("Task title", "Task description");
+        task.setId(++seqId);
+        task.setStartTime(BASE.plusMinutes(startMinute));
+        task.setDuration(Duration.ofMinutes(durationMinutes));
+        return task;
+    }
+
+    private void assertOverlap(boolean expected, Task task, String message) {
+        assertEquals(expected, validator.hasOverlap(tasksByTime, task), message);
+        assertEquals(expected, reference.hasOverlap(tasksByTime, task), "Reference: " + message);
+    }
+
+    @Test
+    void containedAndIdenticalPeriodsShouldOverlap() {
+        tasksByTime.add(task(0, 60));
+        assertOverlap(true, task(10, 20), "Period inside the stored one");
+        assertOverlap(true, task(-10, 100), "Period containing the stored one");
+        assertOverlap(true, task(0, 60), "Identical period");
+        assertOverlap(true, task(0, 10), "Period with the same start");
+        assertOverlap(true, task(50, 10), "Period with the same end");
+    }
+
+    @Test
+    void touchingPeriodsShouldNotOverlap() {
+        tasksByTime.add(task(0, 60));
+        assertOverlap(false, task(60, 30), "Period starting at the end of the stored one");
+        assertOverlap(false, task(-30, 30), "Period ending at the start of the stored one");
+        assertOverlap(false, task(0, 0), "Zero-length period at the start of the stored one");
+        assertOverlap(true, task(30, 0), "Zero-length period inside the stored one");
+    }
+
+    @Test
+    void periodCoveringStartIsFoundBehindZeroLengthTasks() {
+        tasksByTime.add(task(0, 0));
+        tasksByTime.add(task(0, 60));
+        tasksByTime.add(task(0, 0));
+        assertOverlap(true, task(30, 60), "Period started inside the stored one");
+        assertOverlap(false, task(60, 60), "Period started at the end of the stored one");
+    }
+
+    @Test
+    void shouldMatchReferenceScanOnRandomBoard() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            Task task = task(random.nextInt(10_000), random.nextInt(4) == 0 ? 0 : random.nextInt(60));
+            boolean expected = reference.hasOverlap(tasksByTime, task);
+            assertEquals(expected, validator.hasOverlap(tasksByTime, task), "Validators disagree on " + task);
+            if (!expected) {
+                tasksByTime.add(task);
+            }
+        }
+    }
+
+    @Test
+    void timeGridShouldMatchReferenceScanOnRandomBoard() {
+        OverlapValidator grid = new TimeGridOverlapValidator(15);
+        Random random = new Random(7);
+        List<Task> stored = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            if (!stored.isEmpty() && random.nextInt(4) == 0) {
+                Task removed = stored.remove(random.nextInt(stored.size()));
+                tasksByTime.remove(removed);
+                grid.onRemove(tasksByTime, removed);
+                continue;
+            }
+            // mostly slotted periods, some of them off the 15-minute grid or zero-length
+            Task task = random.nextBoolean()
+                    ? task(15 * random.nextInt(1000), 15 * (1 + random.nextInt(8)))
+                    : task(random.nextInt(15_000), random.nextInt(5) == 0 ? 0 : random.nextInt(120));
+            boolean expected = reference.hasOverlap(tasksByTime, task);
+            assertEquals(expected, grid.hasOverlap(tasksByTime, task), "Time grid disagrees on " + task);
+            if (!expected) {
+                tasksByTime.add(task);
+                grid.onAdd(task);
+                stored.add(task);
+            }
+        }
+        grid.onClear();
+        tasksByTime.clear();
+        assertFalse(grid.hasOverlap(tasksByTime, task(0, 60)), "Cleared grid must be free");
+    }
+
+    @Test
+    void recurringTasksShouldMatchMaterializedOccurrences() {
+        // rules are checked arithmetically, their expanded occurrences by the reference scan
+        RecurrenceIndex recurrences = new RecurrenceIndex();
+        TreeSet<Task> occurrences = new TreeSet<>(BY_TIME);
+        Random random = new Random(16);
+        for (int i = 0; i < 1500; i++) {
+            final int start = random.nextInt(20_000);
+            if (random.nextInt(10) == 0) {
+                final int repeatEvery = 30 + random.nextInt(600);
+                RecurringTask rule = new RecurringTask("Rule", "Recurring task",
+                        Duration.ofMinutes(repeatEvery), 1 + random.nextInt(20));
+                rule.setId(++seqId);
+                rule.setStartTime(BASE.plusMinutes(start));
+                rule.setDuration(Duration.ofMinutes(random.nextInt(repeatEvery + 1)));
+                boolean expected = false;
+                for (int k = 0; k < rule.getOccurrences() && !expected; k++) {
+                    expected = reference.hasOverlap(tasksByTime, rule.getOccurrence(k))
+                            || reference.hasOverlap(occurrences, rule.getOccurrence(k));
+                }
+                assertEquals(expected, recurrences.hasOverlap(tasksByTime, rule), "Rule check disagrees on " + rule);
+                if (!expected) {
+                    recurrences.add(rule);
+                    for (int k = 0; k < rule.getOccurrences(); k++) {
+                        occurrences.add(rule.getOccurrence(k).withId(++seqId));
+                    }
+                }
+                continue;
+            }
+            Task task = task(start, random.nextInt(4) == 0 ? 0 : random.nextInt(90));
+            boolean expected = reference.hasOverlap(occurrences, task);
+            assertEquals(expected, recurrences.hasOverlap(task), "Occurrence check disagrees on " + task);
+            if (!expected && !reference.hasOverlap(tasksByTime, task)) {
+                tasksByTime.add(task);
+            }
+        }
+    }
+
+    @Test
+    void timeGridShouldRejectSlotNotDividingDay() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeGridOverlapValidator(7));
+    }
+}
@@ -0,0 +1,148 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.RecurringTask;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 1, 9, 0);
+
+    private InMemoryTaskManager manager;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = new InMemoryTaskManager(new TimeIndexOverlapValidator(), new InMemoryHistoryManager());
+    }
+
+    private static <T extends Task> T done(T task, int hour) {
+        task.setStartTime(START.plusHours(hour));
+        task.setDuration(Duration.ofMinutes(30));
+        task.setStatus(TaskStatus.DONE);
+        return task;
+    }
+
+    @Test
+    void archivedTasksShouldStillBeReadAndCounted() {
+        final int oldId = manager.addNewTask(done(new Task("Old", "Description"), 1));
+        final int newId = manager.addNewTask(done(new Task("New", null), 30));
+        final int openId = manager.addNewTask(new Task("Open", "Description"));
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        final int subtaskId = manager.addNewSubtask(done(new Subtask("Подзадача", "Описание", epicId), 2));
+        final BoardStats before = manager.getStats();
+
+        assertEquals(2, manager.archiveDone(START.plusDays(1)), "Old task and subtask only");
+        assertEquals(0, manager.archiveDone(START.plusDays(1)));
+        assertEquals(Set.of(newId, openId), manager.getTasks().stream().map(Task::getId).collect(Collectors.toSet()));
+        assertTrue(manager.getSubtasks().isEmpty(), "Lists must show the heap tier only");
+
+        Task old = manager.getTaskById(oldId);
+        assertEquals("Old", old.getTitle());
+        assertEquals(START.plusHours(1), old.getStartTime());
+        assertEquals(TaskStatus.DONE, old.getStatus());
+        assertNull(manager.getSubtaskById(oldId), "A task must not be read as a subtask");
+        Subtask subtask = manager.getSubtaskById(subtaskId);
+        assertEquals("Описание", subtask.getDescription());
+        assertEquals(epicId, subtask.getEpicId());
+        assertEquals(List.of(subtask), manager.getEpicSubtasks(epicId));
+        assertEquals(TaskStatus.DONE, manager.getEpicById(epicId).getStatus());
+
+        assertEquals(List.of(oldId, subtaskId), manager.getPrioritizedBetween(START, START.plusHours(3)).stream()
+                .map(Task::getId).toList());
+        assertEquals(List.of(subtaskId, newId), manager.getPrioritizedBetween(START.plusHours(2).plusMinutes(10),
+                START.plusHours(31)).stream().map(Task::getId).toList());
+
+        final BoardStats after = manager.getStats();
+        assertEquals(before.getCount(TaskType.TASK, TaskStatus.DONE), after.getCount(TaskType.TASK, TaskStatus.DONE));
+        assertEquals(1, after.getCount(TaskType.SUBTASK, TaskStatus.DONE));
+        assertEquals(before.getPlannedMinutes(), after.getPlannedMinutes());
+        assertEquals(before.getEpicProgress(), after.getEpicProgress());
+    }
+
+    @Test
+    void changesShouldBringArchivedTasksBack() {
+        final int firstId = manager.addNewTask(done(new Task("First", "Description"), 1));
+        final int secondId = manager.addNewTask(done(new Task("Second", "Description"), 2));
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        final int subtaskId = manager.addNewSubtask(done(new Subtask("Subtask", "Description", epicId), 3));
+        assertEquals(3, manager.archiveDone(START.plusDays(1)));
+
+        manager.updateTask(manager.getTaskById(firstId).withStatus(TaskStatus.IN_PROGRESS));
+        assertEquals(TaskStatus.IN_PROGRESS, manager.getTaskById(firstId).getStatus());
+        assertEquals(List.of(firstId), manager.getTasks().stream().map(Task::getId).toList());
+        assertEquals(1, manager.getStats().getCount(TaskType.TASK, TaskStatus.IN_PROGRESS));
+        assertEquals(1, manager.getStats().getCount(TaskType.TASK, TaskStatus.DONE));
+
+        manager.deleteTask(secondId);
+        assertNull(manager.getTaskById(secondId));
+        assertEquals(0, manager.getStats().getCount(TaskType.TASK, TaskStatus.DONE));
+
+        manager.deleteEpic(epicId);
+        assertNull(manager.getSubtaskById(subtaskId), "Archived subtasks must go with their epic");
+        assertTrue(manager.getPrioritizedBetween(START, START.plusDays(1)).stream()
+                .allMatch(task -> task.getId() == firstId));
+
+        manager.addNewTask(done(new Task("Third", "Description"), 4));
+        assertEquals(1, manager.archiveDone(START.plusDays(1)));
+        manager.deleteAllTasks();
+        assertEquals(0, manager.getStats().getCount(TaskType.TASK));
+        assertTrue(manager.getPrioritizedBetween(START, START.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void archivedPeriodsShouldStayReserved() {
+        final int oldId = manager.addNewTask(done(new Task("Old", "Description"), 1));
+        assertEquals(1, manager.archiveDone(START.plusDays(1)));
+
+        Task overlapping = new Task("Overlapping", "Description");
+        overlapping.setStartTime(START.plusHours(1).plusMinutes(10));
+        overlapping.setDuration(Duration.ofMinutes(30));
+        assertThrows(TaskOverlapException.class, () -> manager.addNewTask(overlapping));
+        RecurringTask rule = new RecurringTask("Rule", "Description", Duration.ofMinutes(20), 4);
+        rule.setStartTime(START.plusMinutes(40));
+        rule.setDuration(Duration.ofMinutes(10));
+        assertThrows(TaskOverlapException.class, () -> manager.addNewTask(rule));
+        assertEquals(START.plusHours(1).plusMinutes(30), manager.findFreeSlot(Duration.ofMinutes(30), START.plusHours(1)));
+        assertEquals(START.plusMinutes(30), manager.findFreeSlot(Duration.ofMinutes(30), START.plusMinutes(30)));
+
+        final int laterId = manager.addNewTask(overlapping.withStartTime(START.plusHours(1).plusMinutes(30)));
+        manager.updateTask(manager.getTaskById(oldId).withTitle("Restored"));
+        assertEquals(List.of(oldId, laterId), manager.getPrioritizedTasks().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void findShouldSkipArchivedSubtasks() {
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        manager.addNewSubtask(done(new Subtask("Old", "Description", epicId), 1));
+        final int openId = manager.addNewSubtask(new Subtask("Open", "Description", epicId));
+        assertEquals(1, manager.archiveDone(START.plusDays(1)));
+
+        List<Task> found = manager.find(new TaskQuery().inEpic(epicId));
+        assertEquals(List.of(openId), found.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void fileBackedManagerShouldNotArchive() throws IOException {
+        File file = File.createTempFile("java-kanban", null, null);
+        file.deleteOnExit();
+        FileBackedTaskManager fileManager = new FileBackedTaskManager(file);
+        assertTrue(manager.canArchive());
+        assertFalse(fileManager.canArchive());
+        assertThrows(UnsupportedOperationException.class, () -> fileManager.archiveDone(START));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventBusTest {
+
+    private static class RecordingListener implements TaskListener {
+        private final List<String> events = new ArrayList<>();
+        private final List<Long> versions = new ArrayList<>();
+        private final CountDownLatch latch;
+        private int batches;
+
+        RecordingListener(int expectedEvents) {
+            latch = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onEvent(TaskEvent event, boolean endOfBatch) {
+            // the event slot is reused, so only its values are kept
+            events.add(event.getKind() + " " + event.getType() + " " + event.getId());
+            versions.add(event.getVersion());
+            if (endOfBatch) {
+                batches++;
+            }
+            latch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Events were not delivered in time: " + events);
+        }
+    }
+
+    @Test
+    void managerShouldPublishChangesInOrder() throws InterruptedException {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        RecordingListener listener = new RecordingListener(5);
+        manager.addListener(listener);
+
+        final int epicId = manager.addNewEpic(new Epic("Epic title", "Epic description"));
+        Subtask subtask = new Subtask("Subtask title", "Subtask description", epicId);
+        final int subtaskId = manager.addNewSubtask(subtask);
+        manager.updateSubtask(manager.peekSubtask(subtaskId).withStatus(TaskStatus.DONE));
+        manager.deleteEpic(epicId);
+        listener.await();
+
+        assertEquals(List.of("CREATED EPIC " + epicId, "CREATED SUBTASK " + subtaskId, "UPDATED SUBTASK " + subtaskId,
+                "DELETED EPIC " + epicId, "DELETED SUBTASK " + subtaskId), listener.events, "Wrong events");
+        for (int i = 1; i < listener.versions.size(); i++) {
+            assertTrue(listener.versions.get(i) > listener.versions.get(i - 1), "Board versions must grow");
+        }
+        manager.removeListener(listener);
+    }
+
+    @Test
+    void slowListenerShouldGetEveryEventInBatches() throws InterruptedException {
+        TaskEventBus bus = new TaskEventBus(4);
+        final int count = 100;
+        RecordingListener slow = new RecordingListener(count) {
+            @Override
+            public void onEvent(TaskEvent event, boolean endOfBatch) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onEvent(event, endOfBatch);
+            }
+        };
+        bus.subscribe(slow);
+        Task task = new Task("Task title", "Task description");
+        for (int i = 1; i <= count; i++) {
+            bus.publish(TaskEvent.Kind.CREATED, TaskType.TASK, i, null, task, i);  // waits for the free slots
+        }
+        slow.await();
+
+        for (int i = 0; i < count; i++) {
+            assertEquals("CREATED TASK " + (i + 1), slow.events.get(i), "Events must not be lost or reordered");
+        }
+        assertTrue(slow.batches < count, "Events published while the listener was busy must come as a batch");
+        bus.unsubscribe(slow);
+        assertFalse(bus.hasSubscribers(), "Listener must be removed");
+    }
+
+    private static class StoppedListener implements TaskListener {
+        @Override
+        public void onEvent(TaskEvent event, boolean endOfBatch) {
+        }
+    }
+
+    private static long liveThreads(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals(name) && thread.isAlive())
+                .count();
+    }
+
+    @Test
+    void listenerThreadsShouldEndOnUnsubscribeAndClose() {
+        final String name = "task-events-" + StoppedListener.class.getSimpleName();
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        StoppedListener removed = new StoppedListener();
+        manager.addListener(removed);
+        manager.addNewTask(new Task("Task title", "Task description"));
+        assertEquals(1, liveThreads(name), "Listener thread must be started");
+        manager.removeListener(removed);
+        assertEquals(0, liveThreads(name), "Listener thread must end on unsubscribe");
+
+        TaskManager concurrent = new ConcurrentTaskManager(manager);
+        concurrent.addListener(new StoppedListener());
+        concurrent.addListener(new StoppedListener());
+        assertEquals(2, liveThreads(name), "Listener threads must be started");
+        concurrent.close();
+        assertEquals(0, liveThreads(name), "Listener threads must end on close");
+    }
+
+    @Test
+    void ringCapacityShouldBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskEventBus(1000));
+    }
+}
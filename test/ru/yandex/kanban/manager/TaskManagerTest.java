@@ -3,12 +3,16 @@ package ru.yandex.kanban.manager;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.RecurringTask;
 import ru.yandex.kanban.tasks.Subtask;
 import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -88,6 +92,8 @@ class TaskManagerTest {
         final int subtask2Id = subtask2.getId();
 
         manager.deleteSubtask(subtask2Id);
+        epic = manager.getEpicById(epicId);
+        assertEquals(1, epic.getSubtaskIds().size(), "Only subtask #1 must be kept in Epic");
         for (int actualSubtaskId : epic.getSubtaskIds()) {
             assertEquals(expectedSubtask1Id, actualSubtaskId, "Only subtask #1 must be kept in Epic");
         }
@@ -109,6 +115,7 @@ class TaskManagerTest {
         HistoryManager historyManager = Managers.getDefaultHistory();
         historyManager.clear();
         manager.deleteAllTasks();
+        manager.deleteAllEpics();
 
         Task task = new Task("Task title", "Task description");
         final int expectedId = manager.addNewTask(task);
@@ -123,6 +130,7 @@ class TaskManagerTest {
     @Test
     void addedTasksArePrioritizedByTime() {
         manager.deleteAllTasks();
+        manager.deleteAllEpics();
         Task laterTask = new Task("Late task title", "Late task description");
         laterTask.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0));
         Task earlierTask = new Task("Early task  title", "Early task  description");
@@ -137,6 +145,7 @@ class TaskManagerTest {
     @Test
     void intersectedTaskIsRefusedOnAdding() {
         manager.deleteAllTasks();
+        manager.deleteAllEpics();
         LocalDateTime initialStart = LocalDateTime.now();
         Task task = new Task("Task title", "Task description");
         task.setStartTime(initialStart);
@@ -154,6 +163,451 @@ class TaskManagerTest {
         assertEquals(expectedTaskId, actualTasksByTime.getFirst().getId(), "ID of the 1st task must be got" );
     }
 
+    @Test
+    void containedTaskIsRefusedButShiftedTaskIsUpdated() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime initialStart = LocalDateTime.now();
+        Task task = new Task("Task title", "Task description");
+        task.setStartTime(initialStart);
+        task.setDuration(Duration.ofMinutes(100));
+        final int taskId = manager.addNewTask(task);
+
+        Task taskInside = new Task("Contained task title", "Contained task description");
+        taskInside.setStartTime(initialStart.plusMinutes(10));
+        taskInside.setDuration(Duration.ofMinutes(20));
+        assertThrows(TaskOverlapException.class, () -> manager.addNewTask(taskInside),
+                "Task inside the period of another one must be refused");
+
+        Task shiftedTask = new Task(task);
+        shiftedTask.setStartTime(initialStart.plusMinutes(30));
+        manager.updateTask(shiftedTask);
+        List<Task> actualTasksByTime = manager.getPrioritizedTasks();
+        assertEquals(1, actualTasksByTime.size(), "Old period of the updated task must be replaced");
+        assertEquals(taskId, actualTasksByTime.getFirst().getId(), "ID of the updated task must be kept");
+        assertEquals(initialStart.plusMinutes(30), actualTasksByTime.getFirst().getStartTime(),
+                "Updated task must be placed by its new start time");
+    }
+
+    @Test
+    void epicStateShouldFollowSubtaskChanges() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+
+        Epic epic = new Epic("Epic title", "Epic description");
+        final int epicId = manager.addNewEpic(epic);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+        Subtask subtask1 = new Subtask("Subtask #1", "Subtask1 description", epicId);
+        subtask1.setStartTime(start);
+        subtask1.setDuration(Duration.ofMinutes(30));
+        Subtask subtask2 = new Subtask("Subtask #2", "Subtask2 description", epicId);
+        subtask2.setStartTime(start.plusHours(2));
+        subtask2.setDuration(Duration.ofMinutes(45));
+        subtask2.setStatus(TaskStatus.DONE);
+        manager.addNewSubtask(subtask1);
+        final int subtaskId2 = manager.addNewSubtask(subtask2);
+
+        Epic actualEpic = manager.getEpicById(epicId);
+        assertEquals(TaskStatus.IN_PROGRESS, actualEpic.getStatus(), "Epic with NEW and DONE subtasks is in progress");
+        assertEquals(Duration.ofMinutes(75), actualEpic.getDuration(), "Epic duration is the sum of subtask ones");
+        assertEquals(start, actualEpic.getStartTime(), "Epic starts with its earliest subtask");
+        assertEquals(start.plusMinutes(165), actualEpic.getEndTime(), "Epic ends with its latest subtask");
+
+        final Epic returnedEpic = actualEpic;
+        final List<Epic> epics = manager.getEpics();
+        assertThrows(IllegalStateException.class, () -> returnedEpic.removeSubtaskId(subtaskId2),
+                "Stored epic must be sealed");
+
+        Subtask doneSubtask1 = new Subtask(subtask1);
+        doneSubtask1.setStatus(TaskStatus.DONE);
+        manager.updateSubtask(doneSubtask1);
+        assertEquals(TaskStatus.DONE, manager.getEpicById(epicId).getStatus(), "Epic with DONE subtasks is done");
+
+        manager.deleteSubtask(subtaskId2);
+        actualEpic = manager.getEpicById(epicId);
+        assertEquals(Duration.ofMinutes(30), actualEpic.getDuration(), "Deleted subtask duration must be excluded");
+        assertEquals(start.plusMinutes(30), actualEpic.getEndTime(), "Epic must end with the remaining subtask");
+        assertEquals(1, actualEpic.getSubtaskIds().size());
+
+        assertEquals(TaskStatus.IN_PROGRESS, returnedEpic.getStatus(), "Returned epic must not follow later changes");
+        assertEquals(2, returnedEpic.getSubtaskIds().size(), "Returned epic must keep its subtasks");
+        assertSame(returnedEpic, epics.getFirst(), "Old snapshot must keep the old epic");
+        assertNotSame(returnedEpic, manager.getEpics().getFirst(), "New snapshot must have the changed epic");
+    }
+
+    @Test
+    void snapshotsShouldBeSharedUntilBoardChanges() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        Task task = new Task("Task title", "Task description");
+        manager.addNewTask(task);
+
+        final long version = manager.getBoardVersion();
+        final List<Task> snapshot = manager.getTasks();
+        assertSame(snapshot, manager.getTasks(), "Unchanged board must return the same snapshot");
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(task), "Snapshot must be read-only");
+
+        manager.addNewTask(new Task("Another task title", "Another task description"));
+        assertTrue(manager.getBoardVersion() > version, "Board version must grow on change");
+        assertEquals(1, snapshot.size(), "Old snapshot must not see later changes");
+        assertEquals(2, manager.getTasks().size(), "New snapshot must contain the added task");
+    }
+
+    @Test
+    void findShouldCombineStatusTypeAndEpicConditions() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+
+        Task task = new Task("Task title", "Task description");
+        task.setStatus(TaskStatus.DONE);
+        final int taskId = manager.addNewTask(task);
+        final int epicId1 = manager.addNewEpic(new Epic("Epic #1", "Epic1 description"));
+        final int epicId2 = manager.addNewEpic(new Epic("Epic #2", "Epic2 description"));
+        Subtask subtask1 = new Subtask("Subtask #1", "Subtask1 description", epicId1);
+        subtask1.setStatus(TaskStatus.DONE);
+        final int subtaskId1 = manager.addNewSubtask(subtask1);
+        manager.addNewSubtask(new Subtask("Subtask #2", "Subtask2 description", epicId1));
+        Subtask subtask3 = new Subtask("Subtask #3", "Subtask3 description", epicId2);
+        subtask3.setStatus(TaskStatus.DONE);
+        manager.addNewSubtask(subtask3);
+
+        List<Task> done = manager.find(new TaskQuery().withStatus(TaskStatus.DONE));
+        assertEquals(4, done.size(), "Task, 2 subtasks and epic #2 are done");
+
+        List<Task> doneTasks = manager.find(new TaskQuery().ofType(TaskType.TASK).withStatus(TaskStatus.DONE));
+        assertEquals(1, doneTasks.size(), "Only one task is done");
+        assertEquals(taskId, doneTasks.getFirst().getId(), "Done task must be found");
+
+        List<Task> doneInEpic1 = manager.find(new TaskQuery().inEpic(epicId1).withStatus(TaskStatus.DONE));
+        assertEquals(1, doneInEpic1.size(), "Only one subtask of epic #1 is done");
+        assertEquals(subtaskId1, doneInEpic1.getFirst().getId(), "Done subtask of epic #1 must be found");
+
+        List<Task> epicsInProgress = manager.find(new TaskQuery().ofType(TaskType.EPIC)
+                .withStatus(TaskStatus.IN_PROGRESS));
+        assertEquals(1, epicsInProgress.size(), "Epic #1 is in progress");
+        assertEquals(epicId1, epicsInProgress.getFirst().getId(), "Epic status must be indexed after changes");
+
+        manager.deleteSubtask(subtaskId1);
+        assertTrue(manager.find(new TaskQuery().inEpic(epicId1).withStatus(TaskStatus.DONE)).isEmpty(),
+                "Deleted subtask must leave the index");
+    }
+
+    @Test
+    void shouldReturnPrioritizedTasksByRangeAndByPages() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime start = LocalDateTime.of(2025, 5, 1, 9, 0);
+        for (int i = 0; i < 10; i++) {
+            Task task = new Task("Task #" + i, "Task description");
+            task.setStartTime(start.plusHours(i));
+            task.setDuration(Duration.ofMinutes(30));
+            manager.addNewTask(task);
+        }
+
+        List<Task> range = manager.getPrioritizedBetween(start.plusMinutes(140), start.plusHours(5));
+        assertEquals(3, range.size(), "Tasks started at 11:00, 12:00 and 13:00 run within 11:20-14:00");
+        assertEquals(start.plusHours(2), range.getFirst().getStartTime(), "Running task must be the first one");
+
+        List<Task> page1 = manager.getPrioritizedPage(null, 4);
+        List<Task> page2 = manager.getPrioritizedPage(page1.getLast(), 4);
+        List<Task> page3 = manager.getPrioritizedPage(page2.getLast(), 4);
+        assertEquals(4, page1.size(), "First page must be full");
+        assertEquals(start.plusHours(4), page2.getFirst().getStartTime(), "Second page must follow the first one");
+        assertEquals(2, page3.size(), "Last page keeps the rest");
+    }
+
+    @Test
+    void shouldFindFreeSlotAndScheduleTaskIntoIt() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task("Task #" + i, "Task description");
+            task.setStartTime(start.plusHours(i));
+            task.setDuration(Duration.ofMinutes(40));  // 9:00-9:40, 10:00-10:40, 11:00-11:40
+            manager.addNewTask(task);
+        }
+
+        assertEquals(start.plusMinutes(40), manager.findFreeSlot(Duration.ofMinutes(20), start.plusMinutes(10)),
+                "Short task fits into the first gap");
+        assertEquals(start.plusHours(2).plusMinutes(40), manager.findFreeSlot(Duration.ofMinutes(30), start),
+                "Long task goes after the last one");
+        assertEquals(start.minusHours(1), manager.findFreeSlot(Duration.ofMinutes(60), start.minusHours(1)),
+                "Task ending exactly at the next start fits");
+
+        Task scheduled = new Task("Scheduled", "Scheduled description");
+        scheduled.setStartTime(start);
+        scheduled.setDuration(Duration.ofMinutes(20));
+        final int id = manager.scheduleNewTask(scheduled);
+        assertEquals(start.plusMinutes(40), manager.getTaskById(id).getStartTime(), "Task must take the first gap");
+        assertEquals(start.plusHours(1).plusMinutes(40),
+                manager.findFreeSlot(Duration.ofMinutes(20), start), "Taken gap is not free anymore");
+    }
+
+    @Test
+    void recurringTaskShouldBeExpandedOnReadingAndCheckedByRule() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        RecurringTask standup = new RecurringTask("Standup", "Daily standup", Duration.ofDays(1), 5);
+        standup.setStartTime(start);
+        standup.setDuration(Duration.ofMinutes(15));   // 9:00-9:15 from Jun 2 to Jun 6
+        final int standupId = manager.addNewTask(standup);
+        Task review = new Task("Review", "Task description");
+        review.setStartTime(start.plusDays(1).plusMinutes(15));
+        review.setDuration(Duration.ofMinutes(45));
+        final int reviewId = manager.addNewTask(review);
+
+        assertEquals(1, manager.getTasks().stream().filter(task -> task.getId() == standupId).count(),
+                "Series must be stored as one task");
+        List<Task> prioritized = manager.getPrioritizedTasks();
+        assertEquals(6, prioritized.size(), "Occurrences must be merged with tasks");
+        assertEquals(List.of(standupId, standupId, reviewId, standupId, standupId, standupId),
+                prioritized.stream().map(Task::getId).toList(), "Occurrences must be ordered by time");
+        assertEquals(start.plusDays(4), prioritized.getLast().getStartTime());
+        assertEquals(List.of(start.plusDays(1), start.plusDays(1).plusMinutes(15)),
+                manager.getPrioritizedBetween(start.plusDays(1), start.plusDays(2)).stream()
+                        .map(Task::getStartTime).toList(), "Range must include occurrences");
+        assertEquals(prioritized.subList(2, 5), manager.getPrioritizedPage(prioritized.get(1), 3),
+                "Page may start after an occurrence");
+
+        Task conflicting = new Task("Conflicting", "Task description");
+        conflicting.setStartTime(start.plusDays(3).plusMinutes(10));
+        conflicting.setDuration(Duration.ofMinutes(30));
+        assertThrows(TaskOverlapException.class, () -> manager.addNewTask(conflicting),
+                "Task must not overlap an occurrence");
+        assertEquals(start.plusDays(3).plusMinutes(15),
+                manager.findFreeSlot(Duration.ofMinutes(30), start.plusDays(3)), "Free slot must skip an occurrence");
+        assertThrows(TaskOverlapException.class,
+                () -> manager.updateTask(manager.peekTask(standupId).withDuration(Duration.ofMinutes(30))),
+                "Longer series must not overlap the task");
+        assertThrows(IllegalArgumentException.class, () -> manager.updateTask(
+                ((RecurringTask) manager.peekTask(standupId)).withRecurrence(Duration.ofMinutes(10), 5)),
+                "Occurrences of a series must not overlap each other");
+
+        manager.updateTask(((RecurringTask) manager.peekTask(standupId)).withRecurrence(Duration.ofDays(1), 2));
+        assertEquals(3, manager.getPrioritizedTasks().size(), "Shortened series must be expanded again");
+        manager.deleteTask(standupId);
+        assertEquals(List.of(manager.peekTask(reviewId)), manager.getPrioritizedTasks());
+    }
+
+    @Test
+    void batchShouldBeAppliedWholeOrNotAtAll() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime start = LocalDateTime.of(2025, 7, 1, 9, 0);
+        final int epicId = manager.addNewEpic(new Epic("Sprint epic", "Epic description"));
+        Task existing = new Task("Existing task", "Task description");
+        existing.setStartTime(start);
+        existing.setDuration(Duration.ofMinutes(60));
+        final int existingId = manager.addNewTask(existing);
+
+        List<Mutation> sprint = new java.util.ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Subtask subtask = new Subtask("Subtask #" + i, "Subtask description", epicId);
+            subtask.setStartTime(start.plusHours(i));
+            subtask.setDuration(Duration.ofMinutes(60));
+            subtask.setStatus(TaskStatus.DONE);
+            sprint.add(Mutation.add(subtask));
+        }
+        sprint.add(Mutation.delete(TaskType.TASK, existingId));
+        final int[] ids = manager.applyBatch(sprint);
+        assertEquals(4, ids.length, "Every mutation must get its ID");
+        assertEquals(existingId, ids[3], "Deleted task ID expected");
+        assertNull(manager.getTaskById(existingId), "Task must be deleted");
+        assertEquals(List.of(ids[0], ids[1], ids[2]), manager.getEpicById(epicId).getSubtaskIds(),
+                "Subtasks must be added to the epic in the batch order");
+        assertEquals(TaskStatus.DONE, manager.getEpicById(epicId).getStatus(), "Epic status must be recomputed");
+        assertEquals(start.plusHours(1), manager.getEpicById(epicId).getStartTime(), "Epic start must be recomputed");
+
+        Task free = new Task("Free task", "Task description");
+        free.setStartTime(start);
+        free.setDuration(Duration.ofMinutes(30));
+        Task inner1 = new Task("Inner #1", "Task description");
+        inner1.setStartTime(start.plusDays(1));
+        inner1.setDuration(Duration.ofMinutes(30));
+        Task inner2 = new Task("Inner #2", "Task description");
+        inner2.setStartTime(start.plusDays(1).plusMinutes(10));
+        final long version = manager.getBoardVersion();
+        assertThrows(TaskOverlapException.class,
+                () -> manager.applyBatch(List.of(Mutation.add(free), Mutation.add(inner1), Mutation.add(inner2))),
+                "Periods within the batch must not overlap");
+
+        Subtask moved = new Subtask(manager.getSubtaskById(ids[0]));
+        moved.setStartTime(start.plusHours(2).plusMinutes(30));
+        assertThrows(TaskOverlapException.class,
+                () -> manager.applyBatch(List.of(Mutation.add(free), Mutation.update(moved))),
+                "Updated subtask must not overlap the stored ones");
+        assertThrows(java.util.NoSuchElementException.class,
+                () -> manager.applyBatch(List.of(Mutation.add(free), Mutation.delete(TaskType.EPIC, epicId),
+                        Mutation.update(moved))),
+                "Subtasks of the deleted epic cannot be updated");
+        assertEquals(version, manager.getBoardVersion(), "Failed batches must not change the board");
+        assertEquals(3, manager.getPrioritizedTasks().size(), "Time index must stay the same");
+
+        moved.setStartTime(start.minusHours(1));
+        manager.applyBatch(List.of(Mutation.add(free), Mutation.update(moved)));
+        assertEquals(start.minusHours(1), manager.getEpicById(epicId).getStartTime(), "Epic start must follow subtask");
+        assertEquals(free, manager.getPrioritizedTasks().get(1), "Added task must be in the time index");
+    }
+
+    @Test
+    void onlyClientReadsShouldBeRecordedInHistory() {
+        manager.deleteAllTasks();   // clears history too
+        manager.deleteAllEpics();
+        final int epicId = manager.addNewEpic(new Epic("Epic title", "Epic description"));
+        Subtask subtask = new Subtask("Subtask title", "Subtask description", epicId);
+        final int subtaskId = manager.addNewSubtask(subtask);
+        Subtask updated = new Subtask(subtask);
+        updated.setStatus(TaskStatus.DONE);
+        manager.updateSubtask(updated);
+        manager.getEpicSubtasks(epicId);
+        assertNotNull(manager.peekSubtask(subtaskId), "Subtask must be found");
+        assertNotNull(manager.peekEpic(epicId), "Epic must be found");
+        assertTrue(manager.getHistory().isEmpty(), "Writes and peeks must not be recorded in history");
+
+        manager.getSubtaskById(subtaskId);
+        manager.deleteSubtask(subtaskId);
+        assertTrue(manager.getHistory().isEmpty(), "Deleted subtask must leave history");
+        manager.getEpicById(epicId);
+        assertEquals(List.of(manager.peekEpic(epicId)), manager.getHistory(), "Client read must be recorded");
+    }
+
+    @Test
+    void dependenciesShouldFollowTaskChanges() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime start = LocalDateTime.of(2025, 7, 1, 9, 0);
+        final int epicId = manager.addNewEpic(new Epic("Epic title", "Epic description"));
+        Task design = new Task("Design", "Task description");
+        design.setStartTime(start);
+        design.setDuration(Duration.ofHours(4));
+        final int designId = manager.addNewTask(design);
+        Subtask build = new Subtask("Build", "Subtask description", epicId);
+        build.setStartTime(start.minusHours(3));  // planned before the design is done
+        build.setDuration(Duration.ofHours(2));
+        final int buildId = manager.addNewSubtask(build);
+
+        manager.addDependency(designId, buildId);
+        assertThrows(DependencyCycleException.class, () -> manager.addDependency(buildId, designId));
+        assertThrows(NoSuchElementException.class, () -> manager.addDependency(epicId, buildId),
+                "Epics cannot be linked");
+        assertEquals(List.of(manager.peekTask(designId)), manager.getPredecessors(buildId));
+        assertEquals(start.plusHours(4), manager.getEarliestStart(buildId));
+        assertEquals(List.of(manager.peekTask(designId), manager.peekSubtask(buildId)),
+                manager.getCriticalPath(epicId));
+
+        manager.updateTask(manager.peekTask(designId).withDuration(Duration.ofHours(6)));
+        assertEquals(start.plusHours(6), manager.getEarliestStart(buildId), "Changed predecessor must be seen");
+        manager.deleteTask(designId);
+        assertEquals(start.minusHours(3), manager.getEarliestStart(buildId),
+                "Deleted predecessor must release the subtask");
+        assertEquals(List.of(manager.peekSubtask(buildId)), manager.getCriticalPath(epicId));
+    }
+
+    @Test
+    void compareAndSetUpdatesShouldFailOnStaleVersion() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        final int epicId = manager.addNewEpic(new Epic("Epic title", "Epic description"));
+        Subtask subtask = new Subtask("Subtask title", "Subtask description", epicId);
+        subtask.setStartTime(LocalDateTime.of(2025, 7, 2, 9, 0));
+        final int subtaskId = manager.addNewSubtask(subtask);
+        assertEquals(1, subtask.getVersion(), "Caller's subtask must get its version like its ID");
+
+        Subtask read = manager.peekSubtask(subtaskId);
+        assertEquals(2, manager.updateSubtask(read.withTitle("First editor"), read.getVersion()),
+                "Update must return the version it stored");
+        assertThrows(StaleVersionException.class,
+                () -> manager.updateSubtask(read.withTitle("Second editor"), read.getVersion()));
+        assertEquals("First editor", manager.peekSubtask(subtaskId).getTitle());
+        assertEquals(2, manager.peekSubtask(subtaskId).getVersion());
+        assertEquals(3, manager.updateSubtask(read.withStatus(TaskStatus.DONE)));  // without the check the last writer wins
+        assertEquals(3, manager.peekSubtask(subtaskId).getVersion(), "Versions must only grow");
+        assertEquals(3, manager.updateSubtask(manager.peekSubtask(subtaskId)), "Unchanged subtask keeps its version");
+
+        Epic epic = new Epic(manager.peekEpic(epicId));
+        epic.setTitle("Renamed");
+        assertEquals(2, manager.updateEpic(epic, 1));
+        assertEquals(2, manager.peekEpic(epicId).getVersion());
+        assertThrows(StaleVersionException.class, () -> manager.updateEpic(epic, 1));
+    }
+
+    @Test
+    void statsShouldFollowEveryChange() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        final LocalDateTime start = LocalDateTime.of(2025, 7, 3, 9, 0);
+        Task task = new Task("Task title", "Task description");
+        task.setStartTime(start);
+        task.setDuration(Duration.ofMinutes(45));
+        final int taskId = manager.addNewTask(task);
+        final int epicId = manager.addNewEpic(new Epic("Epic title", "Epic description"));
+        final int[] subtaskIds = new int[4];
+        for (int i = 0; i < subtaskIds.length; i++) {
+            Subtask subtask = new Subtask("Subtask " + i, "Subtask description", epicId);
+            subtask.setStartTime(start.plusHours(i + 1));
+            subtask.setDuration(Duration.ofMinutes(30));
+            subtaskIds[i] = manager.addNewSubtask(subtask);
+        }
+        manager.updateSubtask(manager.peekSubtask(subtaskIds[0]).withStatus(TaskStatus.DONE));
+        manager.updateTask(manager.peekTask(taskId).withDuration(Duration.ofMinutes(60)));
+
+        BoardStats stats = manager.getStats();
+        assertEquals(1, stats.getCount(TaskType.TASK));
+        assertEquals(3, stats.getCount(TaskType.SUBTASK, TaskStatus.NEW));
+        assertEquals(1, stats.getCount(TaskType.SUBTASK, TaskStatus.DONE));
+        assertEquals(1, stats.getCount(TaskType.EPIC, TaskStatus.IN_PROGRESS));
+        assertEquals(60 + 4 * 30, stats.getPlannedMinutes(), "Epics must not count their subtasks twice");
+        assertEquals(25, stats.getEpicProgress().get(epicId));
+        assertSame(stats, manager.getStats(), "Stats of an unchanged board must be reused");
+
+        manager.applyBatch(List.of(Mutation.delete(TaskType.SUBTASK, subtaskIds[1]),
+                Mutation.update(manager.peekSubtask(subtaskIds[2]).withStatus(TaskStatus.DONE))));
+        manager.deleteTask(taskId);
+        stats = manager.getStats();
+        assertEquals(0, stats.getCount(TaskType.TASK));
+        assertEquals(3 * 30, stats.getPlannedMinutes());
+        assertEquals(66, stats.getEpicProgress().get(epicId));
+
+        manager.deleteAllSubtasks();
+        stats = manager.getStats();
+        assertEquals(0, stats.getPlannedMinutes());
+        assertEquals(1, stats.getCount(TaskType.EPIC, TaskStatus.NEW));
+        assertEquals(0, stats.getEpicProgress().get(epicId));
+        final BoardStats shared = stats;
+        assertThrows(UnsupportedOperationException.class, () -> shared.getEpicProgress().put(epicId, 100),
+                "Cached stats must be read-only");
+    }
+
+    @Test
+    void searchShouldFollowTaskChanges() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        final int epicId = manager.addNewEpic(new Epic("Release 2.0", "Ship the new planner"));
+        Task task = new Task("Fix planner bug", "Crash on empty board");
+        task.setStartTime(LocalDateTime.now().minusYears(1));
+        final int taskId = manager.addNewTask(task);
+        Subtask subtask = new Subtask("Write release notes", "Планировщик и доска", epicId);
+        final int subtaskId = manager.addNewSubtask(subtask);
+
+        assertEquals(List.of(manager.peekEpic(epicId), manager.peekTask(taskId)),
+                manager.search("PLAN", 10), "Prefix must match words in any case");
+        assertEquals(List.of(manager.peekTask(taskId)), manager.search("planner bu", 10),
+                "All the words must be found");
+        assertEquals(List.of(manager.peekSubtask(subtaskId)), manager.search("доска", 10),
+                "Words in any alphabet must be found");
+        assertEquals(1, manager.search("plan", 1).size(), "Limit must be respected");
+        assertTrue(manager.search("  ", 10).isEmpty(), "Empty query finds nothing");
+
+        manager.updateTask(manager.peekTask(taskId).withTitle("Fix board crash"));
+        assertEquals(List.of(manager.peekEpic(epicId)), manager.search("planner", 10),
+                "Changed title must be reindexed");
+        manager.deleteEpic(epicId);
+        assertTrue(manager.search("release", 10).isEmpty(), "Deleted epic and its subtasks must not be found");
+    }
+
     @Test
     void shouldReturnEpicSubtasksInTheSameOrderButSubtasksByTimeFromEarlierToLater() {
         manager.deleteAllTasks();
@@ -181,4 +635,42 @@ class TaskManagerTest {
         assertEquals(expectedSubtask2, actualTasksByTime.get(0), "Earlier subtask must be the first in tasksByTime");
         assertEquals(expectedSubtask1, actualTasksByTime.get(1), "Later subtask must be the second in tasksByTime");
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkDeletesShouldKeepTheRestOfTheBoard() {
+        manager.deleteAllTasks();
+        manager.deleteAllEpics();
+        LocalDateTime start = LocalDateTime.of(2025, 7, 1, 9, 0);
+        final int epicCount = Partitions.PART_SIZE * 3;  // the epics are reset in parallel parts
+        for (int i = 0; i < epicCount; i++) {
+            final int epicId = manager.addNewEpic(new Epic("Bulk epic", "Epic description"));
+            Subtask subtask = new Subtask("Bulk subtask", "Subtask description", epicId);
+            subtask.setStartTime(start.plusHours(2 * i));
+            subtask.setDuration(Duration.ofMinutes(30));
+            subtask.setStatus(TaskStatus.DONE);
+            manager.addNewSubtask(subtask);
+            Task task = new Task("Bulk task", "Task description");
+            task.setStartTime(start.plusHours(2 * i + 1));
+            task.setDuration(Duration.ofMinutes(30));
+            manager.addNewTask(task);
+        }
+
+        manager.deleteAllTasks();
+        List<Task> byTime = manager.getPrioritizedTasks();
+        assertEquals(epicCount, byTime.size(), "Subtasks must stay in the time index");
+        assertTrue(byTime.stream().allMatch(task -> task instanceof Subtask), "Only subtasks must be left");
+        Task overlapping = new Task("Overlapping task", "Task description");
+        overlapping.setStartTime(start.plusMinutes(10));
+        assertThrows(TaskOverlapException.class, () -> manager.addNewTask(overlapping),
+                "Subtask periods must still be checked");
+        assertTrue(manager.search("bulk task", 10).isEmpty(), "Deleted tasks must not be found");
+
+        manager.deleteAllSubtasks();
+        assertTrue(manager.getPrioritizedTasks().isEmpty(), "Time index must be empty");
+        assertTrue(manager.search("bulk subtask", 10).isEmpty(), "Deleted subtasks must not be found");
+        assertEquals(10, manager.search("bulk epic", 10).size(), "Epics must still be found");
+        assertEquals(epicCount, manager.getStats().getCount(TaskType.EPIC, TaskStatus.NEW), "Emptied epics are NEW");
+        assertTrue(manager.getEpics().stream().allMatch(epic -> epic.getSubtaskIds().isEmpty()));
+        manager.deleteAllEpics();
+    }
+}
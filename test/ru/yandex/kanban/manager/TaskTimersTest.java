@@ -0,0 +1,78 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.RecurringTask;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskTimersTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 1, 9, 0);
+
+    private InMemoryTaskManager manager;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = new InMemoryTaskManager(new TimeIndexOverlapValidator(), new InMemoryHistoryManager());
+    }
+
+    private static <T extends Task> T scheduled(T task, int hour) {
+        task.setStartTime(START.plusHours(hour));
+        task.setDuration(Duration.ofMinutes(30));
+        return task;
+    }
+
+    @Test
+    void timersShouldFollowTaskChanges() {
+        final int firstId = manager.addNewTask(scheduled(new Task("First", "Description"), 1));
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        manager.addNewSubtask(scheduled(new Subtask("Subtask", "Description", epicId), 2));
+        assertEquals(0, manager.advanceTime(START), "The first call only starts the clock");
+
+        final int secondId = manager.addNewTask(scheduled(new Task("Second", "Description"), 3));
+        manager.updateTask(manager.peekTask(firstId).withStartTime(START.plusHours(5)));
+        assertEquals(2, manager.advanceTime(START.plusHours(2).plusMinutes(30)), "Subtask start and end only");
+        assertEquals(0, manager.advanceTime(START.plusHours(1)), "Time going back must be ignored");
+
+        manager.deleteTask(secondId);
+        assertEquals(1, manager.advanceTime(START.plusHours(5)), "Moved task start only");
+        manager.updateTask(manager.peekTask(firstId).withDuration(Duration.ofMinutes(10)));
+        assertEquals(0, manager.advanceTime(START.plusHours(5).plusMinutes(9).plusSeconds(59)));
+        assertEquals(1, manager.advanceTime(START.plusHours(5).plusMinutes(10)), "Shortened task end");
+        manager.deleteAllTasks();
+        assertEquals(0, manager.advanceTime(START.plusDays(1)));
+    }
+
+    @Test
+    void listenersShouldGetStartsAndEndsOfRecurringOccurrences() throws InterruptedException {
+        List<String> events = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(8);
+        TaskListener listener = (event, endOfBatch) -> {
+            events.add(event.getKind() + " " + event.getNewValue().getStartTime().getHour());
+            latch.countDown();
+        };
+        manager.addListener(listener);
+        manager.advanceTime(START);
+        final int ruleId = manager.addNewTask(scheduled(new RecurringTask("Daily", "Description",
+                Duration.ofHours(2), 3), 1));
+        assertEquals(5, manager.advanceTime(START.plusHours(5)));
+        manager.updateTask(manager.peekTask(ruleId).withTitle("Standup"));
+        assertEquals(1, manager.advanceTime(START.plusDays(1)), "The last end only");
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Events were not delivered in time: " + events);
+        manager.removeListener(listener);
+
+        assertEquals(List.of("CREATED 10", "STARTED 10", "ENDED 10", "STARTED 12", "ENDED 12", "STARTED 14",
+                "UPDATED 10", "ENDED 14"), events);
+    }
+}
@@ -0,0 +1,157 @@
+package ru.yandex.kanban.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.tasks.Epic;
+import ru.yandex.kanban.tasks.RecurringTask;
+import ru.yandex.kanban.tasks.Subtask;
+import ru.yandex.kanban.tasks.Task;
+import ru.yandex.kanban.tasks.TaskStatus;
+import ru.yandex.kanban.tasks.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UndoJournalTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 1, 9, 0);
+
+    private InMemoryTaskManager manager;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = new InMemoryTaskManager(new TimeIndexOverlapValidator(), new InMemoryHistoryManager());
+    }
+
+    private static <T extends Task> T scheduled(T task, int hour) {
+        task.setStartTime(START.plusHours(hour));
+        task.setDuration(Duration.ofMinutes(30));
+        return task;
+    }
+
+    @Test
+    void undoShouldRestoreDeletedEpicsWithSubtasksAndIds() {
+        final int taskId = manager.addNewTask(scheduled(new Task("Task", "Description"), 0));
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        final int firstId = manager.addNewSubtask(scheduled(new Subtask("First", "Description", epicId), 1));
+        final int secondId = manager.addNewSubtask(scheduled(new Subtask("Second", "Description", epicId), 2));
+        manager.updateSubtask(manager.peekSubtask(firstId).withStatus(TaskStatus.DONE));
+        manager.updateTask(manager.peekTask(taskId).withTitle("Renamed"));
+        List<Subtask> subtasks = manager.getEpicSubtasks(epicId);
+        manager.deleteAllEpics();
+
+        assertEquals(1, manager.undo(1), "Epics with their subtasks must be one step");
+        assertEquals(subtasks, manager.getEpicSubtasks(epicId));
+        assertEquals(List.of(firstId, secondId), manager.peekEpic(epicId).getSubtaskIds());
+        assertEquals(TaskStatus.IN_PROGRESS, manager.peekEpic(epicId).getStatus(), "Epic state must be rebuilt");
+        assertEquals(START.plusHours(1), manager.peekEpic(epicId).getStartTime());
+        assertThrows(TaskOverlapException.class,
+                () -> manager.addNewTask(scheduled(new Task("Task", "Description"), 2)),
+                "Restored periods must be back in the time index");
+
+        assertEquals(1, manager.redo(1));
+        assertTrue(manager.getEpics().isEmpty());
+        assertTrue(manager.getSubtasks().isEmpty());
+
+        assertEquals(2, manager.undo(2));
+        assertEquals("Task", manager.peekTask(taskId).getTitle());
+        assertEquals(2, manager.getSubtasks().size());
+
+        manager.addNewTask(scheduled(new Task("New", "Description"), 5));
+        assertEquals(0, manager.redo(1), "A new change must drop the undone steps");
+        assertEquals(1, manager.undo(1));
+        assertEquals(1, manager.getTasks().size());
+    }
+
+    @Test
+    void undoShouldRevertBatchesAndRecurringTasks() {
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        final int otherId = manager.addNewEpic(new Epic("Other", "Description"));
+        final int subtaskId = manager.addNewSubtask(scheduled(new Subtask("Subtask", "Description", epicId), 0));
+        RecurringTask rule = scheduled(new RecurringTask("Daily", "Description", Duration.ofDays(1), 5), 3);
+        final int ruleId = manager.addNewTask(rule);
+        manager.updateTask(manager.peekTask(ruleId).withTitle("Standup"));
+        final int[] ids = manager.applyBatch(List.of(
+                Mutation.update(manager.peekSubtask(subtaskId).withEpicId(otherId)),
+                Mutation.add(scheduled(new Task("Batch", "Description"), 1)),
+                Mutation.delete(TaskType.EPIC, epicId)));
+
+        assertEquals(1, manager.undo(1), "A batch must be one step");
+        assertNull(manager.peekTask(ids[1]));
+        assertEquals(List.of(subtaskId), manager.peekEpic(epicId).getSubtaskIds());
+        assertTrue(manager.peekEpic(otherId).getSubtaskIds().isEmpty());
+
+        assertEquals(1, manager.undo(1));
+        assertEquals("Daily", manager.peekTask(ruleId).getTitle());
+        assertEquals(5, manager.getPrioritizedTasks().stream().filter(task -> task.getId() == ruleId).count());
+
+        assertEquals(2, manager.redo(2));
+        assertEquals("Standup", manager.peekTask(ruleId).getTitle());
+        assertNull(manager.peekEpic(epicId));
+        assertEquals(List.of(subtaskId), manager.peekEpic(otherId).getSubtaskIds());
+    }
+
+    @Test
+    void budgetShouldDropOldestSteps() {
+        final int taskId = manager.addNewTask(new Task("Task", "Description"));
+        for (int i = 0; i < 100; i++) {
+            manager.updateTask(manager.peekTask(taskId).withDescription("Description " + i));
+        }
+        manager.setUndoBudget(2048);
+
+        int undone = manager.undo(Integer.MAX_VALUE);
+        assertTrue(undone > 0 && undone < 101, "Only the latest steps must fit the budget: " + undone);
+        assertEquals("Description " + (99 - undone), manager.peekTask(taskId).getDescription());
+
+        manager.setUndoBudget(0);
+        assertEquals(0, manager.redo(1), "No budget must turn the journal off");
+        manager.updateTask(manager.peekTask(taskId).withTitle("Renamed"));
+        assertEquals(0, manager.undo(1));
+    }
+
+    @Test
+    void archivingShouldKeepUndoSteps() {
+        final int doneId = manager.addNewTask(scheduled(new Task("Done", "Description"), 0));
+        manager.updateTask(manager.peekTask(doneId).withStatus(TaskStatus.DONE));
+        final int taskId = manager.addNewTask(scheduled(new Task("Task", "Description"), 1));
+        manager.updateTask(manager.peekTask(taskId).withTitle("Renamed"));
+        assertEquals(1, manager.archiveDone(START.plusDays(1)));
+
+        assertEquals(1, manager.undo(1), "Unrelated steps must stay after archiving");
+        assertEquals("Task", manager.peekTask(taskId).getTitle());
+        assertEquals(2, manager.undo(2));
+        assertEquals(TaskStatus.NEW, manager.peekTask(doneId).getStatus(), "Archived task must be restored by undo");
+        assertEquals(List.of(doneId), manager.getTasks().stream().map(Task::getId).toList());
+        assertEquals(3, manager.redo(3));
+        assertEquals(TaskStatus.DONE, manager.peekTask(doneId).getStatus());
+        assertEquals("Renamed", manager.peekTask(taskId).getTitle());
+    }
+
+    @Test
+    void undoShouldRestoreDependenciesDroppedByDeletes() {
+        final int firstId = manager.addNewTask(scheduled(new Task("First", "Description"), 0));
+        final int epicId = manager.addNewEpic(new Epic("Epic", "Description"));
+        final int subtaskId = manager.addNewSubtask(scheduled(new Subtask("Subtask", "Description", epicId), 1));
+        final int lastId = manager.addNewTask(scheduled(new Task("Last", "Description"), 2));
+        manager.addDependency(firstId, subtaskId);
+        manager.addDependency(subtaskId, lastId);
+        manager.deleteEpic(epicId);
+        assertTrue(manager.getPredecessors(lastId).isEmpty());
+
+        assertEquals(1, manager.undo(1));
+        assertEquals(List.of(subtaskId), manager.getPredecessors(lastId).stream().map(Task::getId).toList(),
+                "Dropped edges must come back with the subtask");
+        assertEquals(List.of(firstId), manager.getPredecessors(subtaskId).stream().map(Task::getId).toList());
+        assertEquals(START.plusHours(1), manager.getEarliestStart(subtaskId));
+
+        assertEquals(1, manager.redo(1));
+        assertTrue(manager.getPredecessors(lastId).isEmpty(), "Redo must drop the edges again");
+        assertEquals(1, manager.undo(1));
+        assertEquals(1, manager.undo(1), "A new edge must be its own step");
+        assertTrue(manager.getPredecessors(lastId).isEmpty());
+        assertEquals(List.of(firstId), manager.getPredecessors(subtaskId).stream().map(Task::getId).toList());
+    }
+}
@@ -10,7 +10,7 @@ import ru.yandex.kanban.manager.Managers;
 import ru.yandex.kanban.manager.TaskManager;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.List;
 
 class EpicTest {
 
@@ -33,6 +33,8 @@ class EpicTest {
         final int id = manager.addNewEpic(epic);
         Subtask subtask = new Subtask("Subtask title", "Subtask description", id);
         final int subtaskId = manager.addNewSubtask(subtask);
+        epic = manager.getEpicById(id);
+        assertEquals(1, epic.getSubtaskIds().size());
         for (Integer addedSubtaskId : epic.getSubtaskIds()) {
             assertEquals(subtaskId, addedSubtaskId);
             assertEquals(subtask, manager.getSubtaskById(addedSubtaskId));
@@ -45,7 +47,7 @@ class EpicTest {
         manager.addNewEpic(epic);
         epic.addSubtaskId(1);
         epic.addSubtaskId(1);
-        ArrayList<Integer> subtasks = epic.getSubtaskIds();
+        List<Integer> subtasks = epic.getSubtaskIds();
         assertEquals(1, subtasks.size());
     }
 
@@ -70,7 +72,8 @@ class EpicTest {
         manager.addNewSubtask(subtask1);
         Subtask subtask2 = new Subtask("Subtask 2 title", "Subtask 2 description", id);
         manager.addNewSubtask(subtask2);
-        ArrayList<Integer> subtasks = epic.getSubtaskIds();
+        epic = new Epic(manager.getEpicById(id));  // the stored epic is sealed
+        List<Integer> subtasks = epic.getSubtaskIds();
         assertEquals(2, subtasks.size());
         epic.cleanSubtaskIds();
         assertEquals(0, subtasks.size());
@@ -85,7 +88,9 @@ class EpicTest {
         Subtask subtask2 = new Subtask("Subtask 2 title", "Subtask 2 description", id);
         manager.addNewSubtask(subtask2);
         int idToRemove = subtask2.getId();
+        epic = new Epic(manager.getEpicById(id));  // the stored epic is sealed
         epic.removeSubtaskId(idToRemove);
+        assertEquals(1, epic.getSubtaskIds().size());
         for (Integer everyId : epic.getSubtaskIds()) {
             assertNotEquals(idToRemove, everyId);
         }
@@ -0,0 +1,57 @@
+package ru.yandex.kanban.tasks;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import ru.yandex.kanban.manager.Managers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    private static final String LONG_DESCRIPTION = "Сверить чек-лист релиза, обновить changelog. ".repeat(20);
+
+    @Test
+    void templatedTasksShouldShareTexts() {
+        Subtask first = new Subtask(new String("Checklist"), new String("Short description"), 1);
+        Subtask second = new Subtask(new String("Checklist"), new String("Short description"), 2);
+
+        assertSame(first.getTitle(), second.getTitle(), "Equal titles must be one String");
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.withTitle(new String("Checklist")).getTitle(), first.getTitle());
+    }
+
+    @Test
+    void longDescriptionShouldBePackedAndReadBack() {
+        Task task = new Task("Task", LONG_DESCRIPTION);
+        task.setStartTime(LocalDateTime.of(2025, 10, 1, 9, 0));
+        Task copy = new Task("Task", new String(LONG_DESCRIPTION));
+        copy.setStartTime(task.getStartTime());
+
+        assertNull(task.description, "Long description must be kept packed");
+        assertSame(task.packedDescription, copy.packedDescription, "Equal packed texts must be one copy");
+        assertEquals(LONG_DESCRIPTION, task.getDescription());
+        assertEquals(task, copy);
+        assertEquals(task.hashCode(), copy.hashCode());
+        assertEquals("Other", task.withDescription("Other").getDescription());
+
+        copy.description = LONG_DESCRIPTION;  // as if set bypassing the setters
+        copy.packedDescription = null;
+        assertEquals(task, copy);
+        assertEquals(task.hashCode(), copy.hashCode(), "Hash must not depend on packing");
+    }
+
+    @Test
+    void gsonShouldWritePlainTextAndReadPackedOne() {
+        Gson gson = Managers.getGson();
+        Task task = new Task("Task", LONG_DESCRIPTION);
+
+        String json = gson.toJson(task);
+        assertTrue(json.contains(LONG_DESCRIPTION), "Packed description must be written as text: " + json);
+        Task read = gson.fromJson(json, Task.class);
+        assertNull(read.description);
+        assertEquals(LONG_DESCRIPTION, read.getDescription());
+        assertEquals(task, read);
+    }
+}
@@ -5,9 +5,10 @@ import org.junit.jupiter.api.Test;
 import ru.yandex.kanban.manager.Managers;
 import ru.yandex.kanban.manager.TaskManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TaskTest {
 
@@ -31,4 +32,23 @@ class TaskTest {
         assertEquals(task1, task2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void storedTaskShouldBeChangedOnlyThroughCopies() {
+        Task task = new Task("Task title", "Task description");
+        task.setStartTime(LocalDateTime.now().plusYears(1));
+        final int id = manager.addNewTask(task);
+        Task stored = manager.getTaskById(id);
+        assertTrue(stored.isSealed(), "Stored task must be sealed");
+        assertFalse(task.isSealed(), "Caller's task must stay changeable");
+        assertThrows(IllegalStateException.class, () -> stored.setStartTime(LocalDateTime.now()));
+
+        Task done = stored.withStatus(TaskStatus.DONE);
+        assertEquals(TaskStatus.NEW, stored.getStatus(), "Wither must not change the original");
+        manager.updateTask(done);
+        assertSame(done, manager.getTaskById(id), "Sealed copy must be stored without copying");
+
+        Subtask subtask = new Subtask("Subtask title", "Subtask description", 1).withDuration(Duration.ofMinutes(5));
+        assertEquals(1, subtask.getEpicId(), "Subtask wither must keep the epic");
+        assertEquals(2, subtask.withEpicId(2).getEpicId(), "Subtask must be moved by a copy");
+    }
+}
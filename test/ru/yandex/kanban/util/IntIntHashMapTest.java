@@ -0,0 +1,36 @@
+package ru.yandex.kanban.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapOnRandomOperations() {
+        IntIntHashMap map = new IntIntHashMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key), "Removed value for key " + key);
+            } else {
+                Integer replaced = expected.put(key, i);
+                assertEquals(replaced == null ? -1 : replaced, map.put(key, i), "Replaced value for key " + key);
+            }
+            assertEquals(expected.size(), map.size(), "Map size");
+        }
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key), "Value for key " + key);
+        }
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.yandex.kanban.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntLinkedSetTest {
+
+    @Test
+    void shouldKeepInsertionOrderLikeLinkedHashSet() {
+        IntLinkedSet set = new IntLinkedSet();
+        LinkedHashSet<Integer> expected = new LinkedHashSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value), "Added value " + value);
+            } else {
+                assertEquals(expected.remove(value), set.remove(value), "Removed value " + value);
+            }
+        }
+        assertEquals(expected.size(), set.size(), "Set size");
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(set.asList()), "Order of values");
+        assertEquals(new ArrayList<>(expected).get(expected.size() / 2), set.asList().get(expected.size() / 2),
+                "Value by index");
+    }
+
+    @Test
+    void listViewShouldFollowChanges() {
+        IntLinkedSet set = new IntLinkedSet();
+        List<Integer> view = set.asList();
+        set.add(3);
+        set.add(1);
+        set.add(3);
+        assertEquals(List.of(3, 1), view, "View must show values once in insertion order");
+        set.remove(3);
+        assertEquals(List.of(1), view, "View must drop removed values");
+        set.clear();
+        assertTrue(view.isEmpty(), "View must be empty after clear");
+    }
+
+    @Test
+    void removeIfShouldKeepOrderOfOtherValues() {
+        IntLinkedSet set = new IntLinkedSet();
+        for (int value = 20; value > 0; value--) {
+            set.add(value);
+        }
+        assertEquals(15, set.removeIf(value -> value > 5), "Number of removed values");
+        assertEquals(List.of(5, 4, 3, 2, 1), set.asList());
+        assertTrue(set.contains(3) && !set.contains(6), "Table must follow the removals");
+        set.add(6);
+        assertEquals(List.of(5, 4, 3, 2, 1, 6), set.asList());
+    }
+}
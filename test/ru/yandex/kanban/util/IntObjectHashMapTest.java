@@ -0,0 +1,64 @@
+package ru.yandex.kanban.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapOnRandomOperations() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        HashMap<Integer, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "Removed value for key " + key);
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value), "Replaced value for key " + key);
+            }
+            assertEquals(expected.size(), map.size(), "Map size");
+        }
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals(expected.get(key), map.get(key), "Value for key " + key);
+        }
+        assertEquals(new ArrayList<>(new TreeMap<>(expected).values()), new ArrayList<>(map.values()),
+                "Values view must go in ascending key order");
+        List<Integer> keys = new ArrayList<>();
+        map.forEachKey(keys::add);
+        assertEquals(new ArrayList<>(new TreeMap<>(expected).keySet()), keys, "Keys must go in ascending order");
+    }
+
+    @Test
+    void clearShouldRemoveAllEntries() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "one");
+        map.put(2, "two");
+        map.clear();
+        assertTrue(map.isEmpty(), "Map must be empty after clear");
+        assertNull(map.get(1), "Cleared key must not be found");
+        assertThrows(IllegalArgumentException.class, () -> map.put(3, null), "Null values are not allowed");
+    }
+
+    @Test
+    void removeIfShouldKeepOtherEntriesReachable() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        for (int key = 1; key <= 10_000; key++) {
+            map.put(key, "v" + key);
+        }
+        assertEquals(6_667, map.removeIf(key -> key % 3 != 0), "Number of removed entries");
+        assertEquals(3_333, map.size(), "Map size");
+        for (int key = 1; key <= 10_000; key++) {
+            assertEquals(key % 3 == 0 ? "v" + key : null, map.get(key), "Value of key " + key);
+        }
+        assertEquals(0, map.removeIf(key -> key < 0));
+    }
+}
@@ -0,0 +1,54 @@
+package ru.yandex.kanban.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentIntSetTest {
+
+    @Test
+    void shouldBehaveLikeLinkedHashSetOnRandomOperations() {
+        PersistentIntSet set = PersistentIntSet.EMPTY;
+        LinkedHashSet<Integer> expected = new LinkedHashSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(value);
+                set = set.without(value);
+            } else {
+                expected.add(value);
+                set = set.with(value);
+            }
+            assertEquals(expected.size(), set.size(), "Set size");
+        }
+        for (int value = 0; value < 500; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "Value " + value);
+        }
+        List<Integer> order = new ArrayList<>(expected);
+        assertEquals(order, set.asList(), "Values must keep the insertion order");
+        for (int index = 0; index < order.size(); index++) {
+            assertEquals(order.get(index), set.get(index), "Value at " + index);
+        }
+    }
+
+    @Test
+    void changedCopiesShouldNotChangeTheOriginal() {
+        PersistentIntSet original = PersistentIntSet.EMPTY;
+        for (int value = 1; value <= 20; value++) {
+            original = original.with(value);
+        }
+        PersistentIntSet changed = original.without(10).with(21).with(10);
+        assertEquals(20, original.size());
+        assertEquals(List.of(1, 2, 3), original.asList().subList(0, 3));
+        assertEquals(10, original.get(9), "Original must keep its order");
+        assertEquals(10, changed.get(20), "Re-added value must go to the end");
+        assertSame(changed, changed.with(5), "Adding a present value must return the same set");
+        assertSame(PersistentIntSet.EMPTY, PersistentIntSet.EMPTY.with(1).without(1));
+    }
+}
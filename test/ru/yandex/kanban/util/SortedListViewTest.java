@@ -0,0 +1,51 @@
+package ru.yandex.kanban.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedListViewTest {
+
+    @Test
+    void shouldBehaveLikeTreeSetOnReads() {
+        TreeSet<Integer> expected = new TreeSet<>(Comparator.naturalOrder());
+        for (int value = 0; value < 100; value += 3) {
+            expected.add(value);
+        }
+        SortedListView<Integer> view = new SortedListView<>(new ArrayList<>(expected), expected.comparator());
+        assertEquals(expected, view);
+        assertEquals(expected.first(), view.first());
+        assertEquals(expected.last(), view.last());
+        for (int value = -1; value <= 100; value++) {
+            assertEquals(expected.contains(value), view.contains(value), "Value " + value);
+            assertEquals(List.copyOf(expected.headSet(value)), List.copyOf(view.headSet(value)), "Head " + value);
+            assertEquals(List.copyOf(expected.tailSet(value)), List.copyOf(view.tailSet(value)), "Tail " + value);
+        }
+        SortedSet<Integer> range = view.subSet(10, 50);
+        assertEquals(List.copyOf(expected.subSet(10, 50)), List.copyOf(range));
+        assertEquals(List.copyOf(expected.subSet(20, 40)), List.copyOf(range.subSet(20, 40)));
+        assertThrows(IllegalArgumentException.class, () -> range.headSet(60), "Key out of the view range");
+        assertThrows(IllegalArgumentException.class, () -> view.subSet(50, 10));
+        assertThrows(NoSuchElementException.class, () -> view.subSet(10, 11).first());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(1));
+    }
+
+    @Test
+    void treeSetShouldBeBuiltFromTheView() {
+        List<Integer> sorted = new ArrayList<>();
+        for (int value = 0; value < 10_000; value++) {
+            sorted.add(value * 2);
+        }
+        TreeSet<Integer> tree = new TreeSet<>(Comparator.naturalOrder());
+        tree.addAll(new SortedListView<>(sorted, tree.comparator()));
+        assertEquals(sorted, List.copyOf(tree));
+        assertEquals(Integer.valueOf(4), tree.higher(2));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.kanban.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void millionTimersShouldFireOnceInDeadlineOrder() {
+        final int count = 1_000_000;
+        final long start = 1L << 40;
+        TimingWheel wheel = new TimingWheel(start);
+        long[] expected = new long[count];
+        Random random = new Random(23);
+        for (int key = 0; key < count; key++) {
+            // from seconds to about two years ahead, every fourth one moved, every tenth one cancelled
+            expected[key] = start + 1 + (random.nextBoolean() ? random.nextInt(3_600) : random.nextInt(1 << 26));
+            assertTrue(wheel.schedule(key, expected[key]));
+        }
+        for (int key = 0; key < count; key += 4) {
+            expected[key] = start + 1 + random.nextInt(1 << 26);
+            wheel.schedule(key, expected[key]);
+        }
+        for (int key = 5; key < count; key += 10) {
+            assertTrue(wheel.cancel(key));
+            expected[key] = -1;
+        }
+        assertEquals(count - count / 10, wheel.size());
+
+        boolean[] fired = new boolean[count];
+        long[] last = {start};
+        long previous = start;
+        int total = 0;
+        while (wheel.size() > 0) {
+            final long to = previous + 1 + random.nextInt(1 << 20);
+            final long from = previous;
+            total += wheel.advance(to, (key, deadline) -> {
+                assertEquals(expected[key], deadline, "Deadline of key " + key);
+                assertFalse(fired[key], "Fired twice: " + key);
+                assertTrue(deadline > from && deadline <= to, "Fired out of the advanced period: " + key);
+                assertTrue(deadline >= last[0], "Fired out of order: " + key);
+                assertEquals(deadline, wheel.now(), "The wheel must be at the deadline while firing");
+                fired[key] = true;
+                last[0] = deadline;
+            });
+            previous = to;
+        }
+        assertEquals(count - count / 10, total);
+        for (int key = 0; key < count; key++) {
+            assertEquals(expected[key] >= 0, fired[key], "Key " + key);
+        }
+    }
+
+    @Test
+    void advanceShouldJumpOverEmptyTicksAndAllowRescheduling() {
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(1, 10);
+        wheel.schedule(2, TimingWheel.MAX_TICK);
+        assertFalse(wheel.schedule(3, 0), "A passed deadline must not be set");
+        List<Long> fired = new ArrayList<>();
+        // every firing of key 1 sets it again a hundred years of seconds later
+        final int firings = wheel.advance(TimingWheel.MAX_TICK, (key, deadline) -> {
+            fired.add(deadline);
+            if (key == 1 && deadline < (1L << 45)) {
+                wheel.schedule(1, deadline * 64);
+            }
+        });
+        assertEquals(fired.size(), firings);
+        assertEquals(TimingWheel.MAX_TICK, (long) fired.getLast());
+        assertEquals(10, (long) fired.getFirst());
+        assertEquals(0, wheel.size());
+        assertEquals(-1, wheel.getDeadline(1));
+        assertThrows(IllegalArgumentException.class, () -> wheel.advance(5, (key, deadline) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(1, -1));
+    }
+}